@@ -0,0 +1,69 @@
+package com.nk.cars.benchmark;
+
+import com.nk.cars.config.JwtKeyRegistry;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import com.nk.cars.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * AuthServiceBenchmark.java
+ *
+ * <p>
+ * Minting and verifying local JWTs, the work done for every request carrying a local token.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.benchmark
+ * @created Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+public class AuthServiceBenchmark
+{
+    private AuthService authService;
+
+    private User user;
+
+    private String token;
+
+    @Setup
+    public void setUp()
+    {
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "jwtKeyRegistry", new JwtKeyRegistry(Map.of("k1", "benchmark-secret"), "k1", "k1"));
+        ReflectionTestUtils.setField(authService, "sessionTokenTtl", Duration.ofMinutes(30));
+
+        user = new User();
+        user.setUserId(1L);
+        user.setEmail("bench@mail.com");
+        user.setRole(Role.END_CUSTOMER);
+
+        token = authService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken()
+    {
+        return authService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername()
+    {
+        return authService.extractUsername(token);
+    }
+
+    @Benchmark
+    public UserPrincipal extractPrincipal()
+    {
+        return authService.extractPrincipal(token);
+    }
+}
@@ -0,0 +1,136 @@
+package com.nk.cars.benchmark;
+
+import com.nk.cars.CarsMainApplication;
+import com.nk.cars.dto.BulkRegistrationResult;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import com.nk.cars.repo.UserRepository;
+import com.nk.cars.service.CarService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CarRegistrationBenchmark.java
+ *
+ * <p>
+ * Registers the same number of cars through <code>/cars/register</code>'s path, one car per call,
+ * and through the bulk path, against an in-memory database. One operation is a whole fleet.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.benchmark
+ * @created Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CarRegistrationBenchmark
+{
+    private static final int FLEET_SIZE = 500;
+
+    private final AtomicLong plateSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private CarService carService;
+
+    private User owner;
+
+    @Setup
+    public void setUp()
+    {
+        // command line arguments, so they win over application.yml
+        context = new SpringApplicationBuilder(CarsMainApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("authorizedClientService", new NoOpAuthorizedClientService()))
+                .run("--spring.datasource.url=jdbc:hsqldb:mem:registration-benchmark",
+                        "--server.port=0",
+                        "--spring.application.security=false",
+                        "--spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration",
+                        "--logging.level.root=WARN");
+
+        carService = context.getBean(CarService.class);
+
+        User user = new User();
+        user.setName("Benchmark Owner");
+        user.setEmail("benchmark@owner.com");
+        user.setRole(Role.CAR_OWNER);
+        owner = context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    public int registerOneByOne()
+    {
+        int registered = 0;
+
+        for(Car car : newFleet())
+        {
+            carService.registerCar(car, owner);
+            registered++;
+        }
+
+        return registered;
+    }
+
+    @Benchmark
+    public List<BulkRegistrationResult> registerBulk()
+    {
+        return carService.registerCars(newFleet(), owner);
+    }
+
+    private List<Car> newFleet()
+    {
+        List<Car> cars = new ArrayList<>(FLEET_SIZE);
+
+        for(int i = 0; i < FLEET_SIZE; i++)
+        {
+            Car car = new Car();
+            car.setMake("Mahindra");
+            car.setModel("Thar");
+            car.setYear(2022);
+            car.setLicensePlateNumber("BENCH " + plateSequence.incrementAndGet());
+            cars.add(car);
+        }
+
+        return cars;
+    }
+
+    // Only needed to satisfy AuthController, the oauth2 client setup is excluded as it needs the network
+    private static class NoOpAuthorizedClientService implements OAuth2AuthorizedClientService
+    {
+        @Override
+        public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId, String principalName)
+        {
+            return null;
+        }
+
+        @Override
+        public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {}
+
+        @Override
+        public void removeAuthorizedClient(String clientRegistrationId, String principalName) {}
+    }
+}
@@ -0,0 +1,94 @@
+package com.nk.cars.benchmark;
+
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Status;
+import com.nk.cars.service.FleetIndex;
+import com.nk.cars.service.FleetVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CarSearchBenchmark.java
+ *
+ * <p>
+ * One <code>/cars/search</code> response (a page of 50 plus facets) served from the fleet index,
+ * over a fleet of 500k cars generated from a fixed seed.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.benchmark
+ * @created Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CarSearchBenchmark
+{
+    private static final String[] MAKES = {"Tata", "Mahindra", "Maruti", "Hyundai", "Kia", "Toyota", "Honda", "Renault",
+            "Skoda", "Volkswagen", "MG", "Nissan", "Jeep", "Citroen", "BMW", "Audi", "Mercedes", "Volvo", "Lexus", "Ford"};
+
+    private static final String[] MODELS = {"A", "B", "C", "D", "E", "F", "G", "H"};
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param("500000")
+    private int fleetSize;
+
+    @Param({"none", "status", "make", "makeModelYearStatus", "yearRange", "modelYearStatus"})
+    private String filter;
+
+    private FleetIndex fleetIndex;
+
+    private CarSearchCriteria criteria;
+
+    @Setup
+    public void setUp()
+    {
+        fleetIndex = new FleetIndex(new FleetVersion());
+
+        Random random = new Random(42);
+        Status[] statuses = Status.values();
+
+        for(long id = 1; id <= fleetSize; id++)
+        {
+            String make = MAKES[random.nextInt(MAKES.length)];
+            fleetIndex.apply(new CarSummary(id, make, MODELS[random.nextInt(MODELS.length)], 2000 + random.nextInt(25),
+                    "BENCH " + id, statuses[random.nextInt(statuses.length)], "owner@mail.com", 0L));
+        }
+
+        criteria = switch (filter)
+        {
+            case "status" -> new CarSearchCriteria(null, null, null, null, Status.IDLE);
+            case "make" -> new CarSearchCriteria("Tata", null, null, null, null);
+            case "makeModelYearStatus" -> new CarSearchCriteria("Tata", "C", 2015, 2020, Status.IDLE);
+            case "yearRange" -> new CarSearchCriteria(null, null, 2018, 2020, null);
+            case "modelYearStatus" -> new CarSearchCriteria(null, "H", 2003, 2003, Status.ON_SERVICE); // about 1 in 600 cars
+            default -> new CarSearchCriteria(null, null, null, null, null);
+        };
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole)
+    {
+        blackhole.consume(fleetIndex.search(criteria, 0L, PAGE_SIZE + 1));
+        blackhole.consume(fleetIndex.facets(criteria));
+    }
+
+    @Benchmark
+    public CarFacets facets()
+    {
+        return fleetIndex.facets(criteria);
+    }
+}
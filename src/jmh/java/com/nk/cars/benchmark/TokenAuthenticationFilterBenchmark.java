@@ -0,0 +1,105 @@
+package com.nk.cars.benchmark;
+
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Role;
+import com.nk.cars.security.AuthFailureTracker;
+import com.nk.cars.security.TokenAuthenticationFilter;
+import com.nk.cars.service.AuthMetrics;
+import com.nk.cars.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * TokenAuthenticationFilterBenchmark.java
+ *
+ * <p>
+ * Cost of the filter itself around token validation, which is stubbed out so only the
+ * request parsing, security context and error response handling are measured.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.benchmark
+ * @created Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+public class TokenAuthenticationFilterBenchmark
+{
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.benchmark.token";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private TokenAuthenticationFilter filter;
+
+    @Setup
+    public void setUp()
+    {
+        filter = new TokenAuthenticationFilter(new StubTokenService(new UserPrincipal(1L, "bench@mail.com", Role.END_CUSTOMER)),
+                new AuthFailureTracker(20, Duration.ofMinutes(1), 10000), false, new AuthMetrics(new SimpleMeterRegistry()));
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext()
+    {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws ServletException, IOException
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars/getAvailableCars");
+        request.setServletPath("/cars/getAvailableCars");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse missingHeader() throws ServletException, IOException
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars/getAvailableCars");
+        request.setServletPath("/cars/getAvailableCars");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    // Returns a fixed principal, so upstream calls and JWT verification stay out of the numbers
+    private static class StubTokenService extends TokenService
+    {
+        private final UserPrincipal principal;
+
+        StubTokenService(UserPrincipal principal)
+        {
+            super(null, null, null, null, null, null);
+            this.principal = principal;
+        }
+
+        @Override
+        public UserPrincipal validateTokenAndRetrievePrincipal(String token)
+        {
+            return principal;
+        }
+
+        @Override
+        public boolean isLocalToken(String token)
+        {
+            return true;
+        }
+    }
+}
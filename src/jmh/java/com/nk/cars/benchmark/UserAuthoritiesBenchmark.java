@@ -0,0 +1,39 @@
+package com.nk.cars.benchmark;
+
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * UserAuthoritiesBenchmark.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.benchmark
+ * @created Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+public class UserAuthoritiesBenchmark
+{
+    private User user;
+
+    @Setup
+    public void setUp()
+    {
+        user = new User();
+        user.setUserId(1L);
+        user.setEmail("bench@mail.com");
+        user.setRole(Role.CAR_OWNER);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities()
+    {
+        return user.getAuthorities();
+    }
+}
@@ -3,6 +3,7 @@ package com.nk.cars;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * CarsMainApplication.java
@@ -13,6 +14,7 @@ import org.springframework.context.annotation.ComponentScan;
  */
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.nk.cars"}) //For Junit Test
+@EnableScheduling
 public class CarsMainApplication {
 
     public static void main(String[] args) {
@@ -2,12 +2,13 @@ package com.nk.cars.api_integration.service;
 
 import com.nk.cars.api_integration.dto.CarDTO;
 import com.nk.cars.api_integration.dto.CarWrapper;
+import com.nk.cars.config.OutboundHttpClients;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,21 +29,21 @@ public class OpenDataSoftApiService
 
     private static final Logger logger = LogManager.getLogger();
 
-    private static final RestTemplate restTemplate = new RestTemplate();
-    private static final Map<String, Object> params = new HashMap<>();
-
-    static
-    {
-        params.put("select", "make,model,year");
-    }
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
 
     public Set<String> getListOfBrands()
     {
         try
         {
-            params.put("select", "make");
+            // Query parameters are per request, concurrent calls must not share them
+            Map<String, Object> params = Map.of("select", "make");
 
-            ResponseEntity<CarWrapper> entity = restTemplate.getForEntity(baseUrl + "&select={select}", CarWrapper.class, params);
+            ResponseEntity<CarWrapper> entity = outboundHttpClients.forDestination(OutboundHttpClients.OPEN_DATA_SOFT)
+                    .get()
+                    .uri(baseUrl + "&select={select}", params)
+                    .retrieve()
+                    .toEntity(CarWrapper.class);
 
             if(entity.getStatusCode().is2xxSuccessful())
             {
@@ -69,10 +70,14 @@ public class OpenDataSoftApiService
     {
         try {
 
-            params.put("select", "model,year");
-            params.put("where", "make like \""+make+"\"");
+            Map<String, Object> params = Map.of("select", "model,year",
+                    "where", "make like \""+make+"\"");
 
-            ResponseEntity<CarWrapper> entity = restTemplate.getForEntity(baseUrl + "&select={select}&where={where}", CarWrapper.class, params);
+            ResponseEntity<CarWrapper> entity = outboundHttpClients.forDestination(OutboundHttpClients.OPEN_DATA_SOFT)
+                    .get()
+                    .uri(baseUrl + "&select={select}&where={where}", params)
+                    .retrieve()
+                    .toEntity(CarWrapper.class);
 
             if(entity.getStatusCode().is2xxSuccessful())
             {
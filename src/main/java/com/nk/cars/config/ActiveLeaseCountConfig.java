@@ -0,0 +1,39 @@
+package com.nk.cars.config;
+
+import com.nk.cars.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ActiveLeaseCountConfig.java
+ *
+ * <p>
+ * The lease limit is checked against <code>activeLeaseCount</code> on the user, which schema update adds
+ * as 0 for existing users. Before the application serves requests every counter is recounted from the
+ * lease table, so databases with leases started before the column existed keep enforcing the limit.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Configuration
+public class ActiveLeaseCountConfig
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostConstruct
+    public void reconcileActiveLeaseCounts()
+    {
+        int corrected = userRepository.reconcileActiveLeaseCounts();
+
+        if(corrected > 0)
+            logger.info("Active lease count recounted for {} users", corrected);
+    }
+}
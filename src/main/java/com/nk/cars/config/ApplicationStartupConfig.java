@@ -39,9 +39,9 @@ public class ApplicationStartupConfig
         user.setName("superadmin");
         user.setPassword("superadmin");
 
-        userService.registerUser(user);
+        User admin = userService.registerUser(user).getReturnResponse();
 
-        String jwtToken = authService.generateToken(user);
+        String jwtToken = authService.generateToken(admin);
 
         logger.info("Admin Jwt Token {}", jwtToken);
     }
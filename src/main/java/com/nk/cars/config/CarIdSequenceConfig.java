@@ -0,0 +1,53 @@
+package com.nk.cars.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * CarIdSequenceConfig.java
+ *
+ * <p>
+ * Car ids used to come from an identity column and now come from <code>car_seq</code>, which schema
+ * update creates starting at 1. Before the application serves requests the sequence is moved past
+ * the highest existing id, so databases created with the identity column keep working.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Configuration
+public class CarIdSequenceConfig
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // schema, and so the sequence, exists once this is built
+
+    @PostConstruct
+    public void alignCarIdSequence()
+    {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from car", Long.class);
+
+        if(maxId == null)
+            return;
+
+        Long nextValue = jdbcTemplate.queryForObject(
+                "select next_value from information_schema.sequences where lower(sequence_name) = 'car_seq'", Long.class);
+
+        if(nextValue != null && nextValue > maxId)
+            return;
+
+        jdbcTemplate.execute("alter sequence car_seq restart with " + (maxId + 1));
+
+        logger.info("Car id sequence moved past existing id {}", maxId);
+    }
+}
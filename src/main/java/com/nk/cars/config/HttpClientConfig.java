@@ -0,0 +1,24 @@
+package com.nk.cars.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+/**
+ * HttpClientConfig.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class HttpClientConfig
+{
+    @Bean
+    public OutboundHttpClients outboundHttpClients(RestClient.Builder restClientBuilder, OutboundHttpProperties properties)
+    {
+        return new OutboundHttpClients(restClientBuilder, properties);
+    }
+}
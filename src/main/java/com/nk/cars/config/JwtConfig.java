@@ -0,0 +1,29 @@
+package com.nk.cars.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JwtConfig.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Bean
+    public JwtKeyRegistry jwtKeyRegistry(JwtProperties properties)
+    {
+        logger.info("Loading jwt keys {}, signing with '{}'", properties.getKeys().keySet(), properties.getActiveKeyId());
+
+        return new JwtKeyRegistry(properties.getKeys(), properties.getActiveKeyId(), properties.getLegacyKeyId());
+    }
+}
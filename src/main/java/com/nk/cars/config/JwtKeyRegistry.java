@@ -0,0 +1,98 @@
+package com.nk.cars.config;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nk.cars.utils.CommonUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JwtKeyRegistry.java
+ *
+ * <p>
+ * Immutable set of signing keys built once at startup. Holds the {@link Algorithm} used to sign
+ * new tokens and one prebuilt, thread-safe {@link JWTVerifier} per key id, so verifying a token
+ * only parses it once and never rebuilds the algorithm or verifier.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+public final class JwtKeyRegistry
+{
+    private final String activeKeyId;
+
+    private final Algorithm signingAlgorithm;
+
+    private final Map<String, JWTVerifier> verifiers;
+
+    private final JWTVerifier legacyVerifier;
+
+    /**
+     * @param secretsByKeyId HMAC secret of every accepted key
+     * @param activeKeyId    key used to sign new tokens
+     * @param legacyKeyId    key used for tokens without a kid header, may be null to reject them
+     */
+    public JwtKeyRegistry(Map<String, String> secretsByKeyId, String activeKeyId, String legacyKeyId)
+    {
+        if(secretsByKeyId == null || secretsByKeyId.isEmpty())
+            throw new IllegalArgumentException("At least one jwt key is required (auth.jwt.keys)");
+
+        Map<String, JWTVerifier> verifierMap = new HashMap<>();
+        Map<String, Algorithm> algorithms = new HashMap<>();
+
+        secretsByKeyId.forEach((keyId, secret) -> {
+            if(CommonUtils.nullOrEmpty(secret))
+                throw new IllegalArgumentException("Secret for jwt key '" + keyId + "' is empty");
+
+            Algorithm algorithm = Algorithm.HMAC256(secret);
+            algorithms.put(keyId, algorithm);
+            verifierMap.put(keyId, JWT.require(algorithm).build());
+        });
+
+        if(!algorithms.containsKey(activeKeyId))
+            throw new IllegalArgumentException("Active jwt key '" + activeKeyId + "' is not among the configured keys");
+
+        if(legacyKeyId != null && !verifierMap.containsKey(legacyKeyId))
+            throw new IllegalArgumentException("Legacy jwt key '" + legacyKeyId + "' is not among the configured keys");
+
+        this.activeKeyId = activeKeyId;
+        this.signingAlgorithm = algorithms.get(activeKeyId);
+        this.verifiers = Map.copyOf(verifierMap);
+        this.legacyVerifier = legacyKeyId != null ? verifierMap.get(legacyKeyId) : null;
+    }
+
+    public String getActiveKeyId()
+    {
+        return activeKeyId;
+    }
+
+    public Algorithm getSigningAlgorithm()
+    {
+        return signingAlgorithm;
+    }
+
+    /**
+     * Verifies the token with the key named in its kid header.
+     *
+     * @throws JWTVerificationException if the key is unknown, or the signature or claims are invalid
+     */
+    public DecodedJWT verify(String token) throws JWTVerificationException
+    {
+        DecodedJWT decodedJWT = JWT.decode(token);
+
+        String keyId = decodedJWT.getKeyId();
+
+        JWTVerifier verifier = keyId == null ? legacyVerifier : verifiers.get(keyId);
+
+        if(verifier == null)
+            throw new JWTVerificationException("Token signed with unknown key id " + keyId);
+
+        return verifier.verify(decodedJWT);
+    }
+}
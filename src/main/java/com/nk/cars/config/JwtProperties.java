@@ -0,0 +1,33 @@
+package com.nk.cars.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JwtProperties.java
+ *
+ * <p>
+ * HMAC keys for locally signed tokens, bound from <code>auth.jwt.*</code>. New tokens are signed
+ * with the active key and carry its id in the <code>kid</code> header. Every listed key is accepted
+ * for verification, so a key can be rotated by adding a new one, making it active, and removing
+ * the old one once the tokens it signed have expired.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.jwt")
+public class JwtProperties
+{
+    private String activeKeyId;
+
+    // Verifies tokens minted before key ids were added to the header
+    private String legacyKeyId;
+
+    private Map<String, String> keys = new LinkedHashMap<>();
+}
@@ -0,0 +1,93 @@
+package com.nk.cars.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * OutboundHttpClients.java
+ *
+ * <p>
+ * Shared layer for every call the application makes to an external service. Each destination gets
+ * one thread-safe {@link RestClient} backed by a JDK {@link HttpClient}, which keeps connections to
+ * the host pooled and does its I/O on virtual threads. Connect and read timeouts are configured per
+ * destination, and requests are recorded under the <code>http.client.requests</code> metric.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+public class OutboundHttpClients implements AutoCloseable
+{
+    public static final String GITHUB = "github";
+
+    public static final String GOOGLE = "google";
+
+    public static final String OPEN_DATA_SOFT = "opendatasoft";
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final RestClient.Builder restClientBuilder;
+
+    private final OutboundHttpProperties properties;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, HttpClient> httpClients = new ConcurrentHashMap<>();
+
+    private final Map<String, RestClient> restClients = new ConcurrentHashMap<>();
+
+    /**
+     * @param restClientBuilder builder carrying the application's message converters and observation setup
+     */
+    public OutboundHttpClients(RestClient.Builder restClientBuilder, OutboundHttpProperties properties)
+    {
+        this.restClientBuilder = restClientBuilder;
+        this.properties = properties;
+    }
+
+    /**
+     * @param destination one of the destination names, e.g. {@link #GITHUB}
+     * @return the client for that destination, created on first use
+     */
+    public RestClient forDestination(String destination)
+    {
+        return restClients.computeIfAbsent(destination, this::createRestClient);
+    }
+
+    private RestClient createRestClient(String destination)
+    {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.connectTimeoutFor(destination))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        httpClients.put(destination, httpClient);
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient, executor);
+        requestFactory.setReadTimeout(properties.readTimeoutFor(destination));
+
+        logger.info("Created outbound http client for {} (connect timeout {}, read timeout {})", destination,
+                properties.connectTimeoutFor(destination), properties.readTimeoutFor(destination));
+
+        return restClientBuilder.clone()
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public void close()
+    {
+        httpClients.values().forEach(HttpClient::close);
+        executor.close();
+    }
+}
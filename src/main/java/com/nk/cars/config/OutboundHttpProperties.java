@@ -0,0 +1,51 @@
+package com.nk.cars.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * OutboundHttpProperties.java
+ *
+ * <p>
+ * Timeouts for calls to external services, bound from <code>http.client.*</code>.
+ * Each destination may override the defaults, e.g. <code>http.client.destinations.github.read-timeout</code>.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.config
+ * @created Oct 18, 2026
+ */
+@Data
+@ConfigurationProperties(prefix = "http.client")
+public class OutboundHttpProperties
+{
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    private Map<String, Destination> destinations = new HashMap<>();
+
+    public Duration connectTimeoutFor(String destination)
+    {
+        Destination overrides = destinations.get(destination);
+        return overrides != null && overrides.getConnectTimeout() != null ? overrides.getConnectTimeout() : connectTimeout;
+    }
+
+    public Duration readTimeoutFor(String destination)
+    {
+        Destination overrides = destinations.get(destination);
+        return overrides != null && overrides.getReadTimeout() != null ? overrides.getReadTimeout() : readTimeout;
+    }
+
+    @Data
+    public static class Destination
+    {
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+    }
+}
@@ -2,6 +2,7 @@ package com.nk.cars.controller;
 
 import com.nk.cars.dto.ApiResponse;
 import com.nk.cars.dto.ResponseType;
+import com.nk.cars.dto.SessionToken;
 import com.nk.cars.entity.User;
 import com.nk.cars.service.AuthService;
 import com.nk.cars.service.UserService;
@@ -53,6 +54,30 @@ public class AuthController {
                 .build();
     }
 
+    /**
+     * Exchanges the GitHub / Google access token sent in the Authorization header for a short-lived
+     * locally signed token. The provider token is verified once by the authentication filter, requests
+     * made with the returned token are then validated by signature alone.
+     *
+     * @return the session token and its lifetime in seconds
+     */
+    @PostMapping("/exchange")
+    public ResponseEntity<ApiResponse<SessionToken>> exchangeToken()
+    {
+        User userFromAuth = authService.fetchUserFromAuth();
+
+        logger.info("Issuing session token for user: {}", userFromAuth.getEmail());
+
+        SessionToken sessionToken = new SessionToken(authService.generateSessionToken(userFromAuth), "Bearer",
+                authService.getSessionTokenTtl().toSeconds());
+
+        return ResponseEntity.ok(ApiResponse.<SessionToken>builder()
+                .responseType(ResponseType.SUCCESS)
+                .responseMessage("Token exchanged successfully")
+                .returnResponse(sessionToken)
+                .build());
+    }
+
     @PutMapping("/updateRole")
     public ResponseEntity<ApiResponse<User>> updateUser(@RequestParam String role)
     {
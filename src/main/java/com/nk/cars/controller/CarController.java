@@ -1,18 +1,32 @@
 package com.nk.cars.controller;
 
+import com.nk.cars.dto.BulkRegistrationResult;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSearchPage;
+import com.nk.cars.dto.CarView;
+import com.nk.cars.dto.CursorPage;
 import com.nk.cars.entity.Car;
 import com.nk.cars.entity.Role;
+import com.nk.cars.entity.Status;
 import com.nk.cars.entity.User;
 import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.service.CarService;
+import com.nk.cars.service.CarStatusStream;
+import com.nk.cars.service.ExportService;
+import com.nk.cars.service.FleetVersion;
 import com.nk.cars.service.AuthService;
 import com.nk.cars.service.UserService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,6 +54,18 @@ public class CarController
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private FleetVersion fleetVersion;
+
+    @Autowired
+    private CarStatusStream carStatusStream;
+
+    // listings change with the fleet, clients keep them but ask with the ETag every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     /**
      * Registers a new car for the authenticated user(CAR_OWNER).
      *
@@ -81,6 +107,39 @@ public class CarController
         return ResponseEntity.ok(registeredCar);
     }
 
+    /**
+     * Registers a batch of cars for the authenticated user(CAR_OWNER) in one call.
+     *
+     * @param cars    Car details, one entry per car
+     * @param ownerId the id of the owner to be registered by admin
+     * @return One result per car, in request order
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'CAR_OWNER')")
+    @PostMapping("/registerBulk")
+    public ResponseEntity<List<BulkRegistrationResult>> registerCars(@RequestBody List<Car> cars,
+                                                                     @RequestParam(required = false) Long ownerId)
+    {
+        User user = authService.fetchUserFromAuth();
+
+        User owner = user;
+
+        if(user.getRole().equals(Role.ADMIN))
+        {
+            if(ownerId == null)
+                throw new FieldMissingException("Field 'ownerId' required when process initiated by ADMIN");
+
+            owner = userService.getUserById(ownerId);
+        }
+
+        logger.info("Bulk registering {} cars for user {}", cars.size(), owner.getEmail());
+
+        var results = carService.registerCars(cars, owner);
+
+        logger.info("Bulk registration finished for user {}", owner.getEmail());
+
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Updates the status of a car.
      *
@@ -104,21 +163,46 @@ public class CarController
     }
 
     /**
-     * Fetches the list of all cars (admin-only).
+     * Fetches one page of all cars (admin-only).
      *
-     * @return List of all cars
+     * @param cursor       nextCursor of the previous page, omitted for the first page
+     * @param size         page size, defaults to cars.page.default-size
+     * @param includeTotal whether to count all cars as well
+     * @return Page of cars ordered by id, or 304 if the fleet did not change since the ETag sent in If-None-Match
      */
     @GetMapping("/getAllCars")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Car>> getAllCars()
+    public ResponseEntity<CursorPage<CarView>> getAllCars(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                          WebRequest webRequest)
     {
         logger.info("Request received from Admin for fetching all cars.");
 
-        var fetchedCars = carService.getAllCars();
+        if(isNotModified(webRequest))
+            return null;
+
+        var fetchedCars = carService.getAllCars(cursor, size, includeTotal);
 
-        logger.info("Successfully fetched cars by admin.. size = {}", fetchedCars.size());
+        logger.info("Successfully fetched cars by admin.. size = {}", fetchedCars.getSize());
 
-        return ResponseEntity.ok(fetchedCars);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(fetchedCars);
+    }
+
+    /**
+     * Streams the whole fleet as NDJSON, one car per line (admin-only).
+     *
+     * @return Response written row by row as the cars are read
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCars()
+    {
+        logger.info("Request received from Admin for exporting all cars.");
+
+        StreamingResponseBody body = exportService::exportFleet;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -128,13 +212,11 @@ public class CarController
      */
     @GetMapping("/getCarsByOwner")
     @PreAuthorize("hasAnyRole('ADMIN','CAR_OWNER')")
-    public ResponseEntity<List<Car>> getAllCarsByOwner()
+    public ResponseEntity<List<CarView>> getAllCarsByOwner()
     {
         logger.info("Fetching cars owned by the authenticated user.");
 
-        User userFromAuth = authService.fetchUserFromAuth();
-
-        var allCarsByOwner = carService.getAllCarsByOwner(userFromAuth);
+        var allCarsByOwner = carService.getAllCarsByOwner(authService.fetchPrincipalFromAuth());
 
         logger.info("Successfully fetched cars owned by the user.. size = {}",allCarsByOwner.size());
 
@@ -142,36 +224,116 @@ public class CarController
     }
 
     /**
-     * Fetches all available cars for leasing.
+     * Fetches one page of available cars for leasing.
      *
-     * @return List of available cars
+     * @return Page of available cars, or 304 if the fleet did not change since the ETag sent in If-None-Match
      */
     @GetMapping("/getAvailableCars")
-    public ResponseEntity<List<Car>> getAvailableCars()
+    public ResponseEntity<CursorPage<CarView>> getAvailableCars(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                                WebRequest webRequest)
     {
         logger.info("Fetching available cars.");
 
-        var availableCars = carService.getAvailableCars();
+        if(isNotModified(webRequest))
+            return null;
 
-        logger.info("Successfully fetched available cars.. size = {}", availableCars.size());
+        var availableCars = carService.getAvailableCars(cursor, size, includeTotal);
 
-        return ResponseEntity.ok(availableCars);
+        logger.info("Successfully fetched available cars.. size = {}", availableCars.getSize());
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(availableCars);
     }
 
     /**
-     * Fetches all cars currently leased.
+     * Fetches one page of cars currently leased.
      *
-     * @return List of leased cars
+     * @return Page of leased cars, or 304 if the fleet did not change since the ETag sent in If-None-Match
      */
     @GetMapping("/getLeasedCars")
-    public ResponseEntity<List<Car>> getLeasedCars()
+    public ResponseEntity<CursorPage<CarView>> getLeasedCars(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                             WebRequest webRequest)
     {
         logger.info("Fetching leased cars.");
 
-        var leasedCars = carService.getLeasedCars();
+        if(isNotModified(webRequest))
+            return null;
+
+        var leasedCars = carService.getLeasedCars(cursor, size, includeTotal);
+
+        logger.info("Successfully fetched leased cars.. size = {}", leasedCars.getSize());
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(leasedCars);
+    }
+
+    /**
+     * Searches cars by make, model, year range and status, with counts per make and per year.
+     *
+     * @param make          exact make, optional
+     * @param model         exact model, optional
+     * @param yearFrom      first year of the range, optional
+     * @param yearTo        last year of the range, optional
+     * @param status        car status, optional
+     * @param cursor        nextCursor of the previous page, omitted for the first page
+     * @param size          page size, defaults to cars.page.default-size
+     * @param includeFacets whether to count the matching cars per make and per year
+     * @return Page of matching cars ordered by id, with the facets of the whole search,
+     *         or 304 if the fleet did not change since the ETag sent in If-None-Match
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CarSearchPage> searchCars(@RequestParam(required = false) String make,
+                                                    @RequestParam(required = false) String model,
+                                                    @RequestParam(required = false) Integer yearFrom,
+                                                    @RequestParam(required = false) Integer yearTo,
+                                                    @RequestParam(required = false) Status status,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(defaultValue = "true") boolean includeFacets,
+                                                    WebRequest webRequest)
+    {
+        logger.info("Searching cars.");
+
+        if(isNotModified(webRequest))
+            return null;
+
+        var result = carService.searchCars(new CarSearchCriteria(make, model, yearFrom, yearTo, status), cursor, size, includeFacets);
+
+        logger.info("Successfully searched cars.. size = {}", result.getPage().getSize());
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(result);
+    }
+
+    /**
+     * Streams car status changes as Server-Sent Events, named <code>car-status</code>, as an alternative to polling
+     * the listings. Clients that cannot keep up are disconnected and are expected to reconnect.
+     *
+     * @param make  only cars of this make, optional
+     * @param model only cars of this model, optional
+     * @return Event stream, with a heartbeat comment when there is nothing to send
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCarStatus(@RequestParam(required = false) String make,
+                                      @RequestParam(required = false) String model)
+    {
+        logger.info("Subscribing to car status changes, make: {}, model: {}", make, model);
+
+        return carStatusStream.subscribe(make, model);
+    }
+
+    /**
+     * Compares If-None-Match with the current {@link FleetVersion}, before anything is queried. Either way the
+     * ETag is set on the response, and on a match the status is set to 304 and the handler must return null.
+     */
+    private boolean isNotModified(WebRequest webRequest)
+    {
+        boolean notModified = webRequest.checkNotModified(fleetVersion.eTag());
 
-        logger.info("Successfully fetched leased cars.. size = {}", leasedCars.size());
+        if(notModified)
+            logger.info("Fleet unchanged, answering with 304.");
 
-        return ResponseEntity.ok(leasedCars);
+        return notModified;
     }
 }
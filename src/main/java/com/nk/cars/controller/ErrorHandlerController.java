@@ -3,8 +3,10 @@ package com.nk.cars.controller;
 import com.nk.cars.dto.ApiResponse;
 import com.nk.cars.dto.ResponseType;
 import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
 import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.exception.NotFoundException;
+import com.nk.cars.exception.UpstreamUnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,12 +48,24 @@ public class ErrorHandlerController
         return new ResponseEntity<>(formApiResponseAndLogException(exception), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(value = {ConflictException.class})
+    public ResponseEntity<ApiResponse<String>> handleConflict(ConflictException exception)
+    {
+        return new ResponseEntity<>(formApiResponseAndLogException(exception), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(value = {FieldMissingException.class})
     public ResponseEntity<ApiResponse<String>> handleFieldMissing(FieldMissingException exception)
     {
         return new ResponseEntity<>(formApiResponseAndLogException(exception), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = {UpstreamUnavailableException.class})
+    public ResponseEntity<ApiResponse<String>> handleUpstreamUnavailable(UpstreamUnavailableException exception)
+    {
+        return new ResponseEntity<>(formApiResponseAndLogException(exception), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(value = {AccessDeniedException.class})
     public ResponseEntity<ApiResponse<String>> handleAccessDenied(AccessDeniedException exception)
     {
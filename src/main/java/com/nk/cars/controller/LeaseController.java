@@ -1,21 +1,34 @@
 package com.nk.cars.controller;
 
+import com.nk.cars.dto.CarHold;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.LeaseBatchResult;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.Lease;
 import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
 import com.nk.cars.entity.User;
 import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.service.AuthService;
+import com.nk.cars.service.CarHolds;
+import com.nk.cars.service.ExportService;
 import com.nk.cars.service.LeaseService;
 import com.nk.cars.service.UserService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -46,17 +59,25 @@ public class LeaseController
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CarHolds carHolds;
+
     /**
      * Starts a new lease for a given car and user.
      *
-     * @param carId  the ID of the car to lease
-     * @param userId the ID of the user to start lease by admin
+     * @param carId          the ID of the car to lease
+     * @param userId         the ID of the user to start lease by admin
+     * @param plannedEndDate when the lease ends by itself, optional
      * @return a response entity containing the created lease
      */
     @PostMapping("/startLease")
     @PreAuthorize("hasAnyRole('ADMIN','END_CUSTOMER')")
     public ResponseEntity<Lease> startLease(@RequestParam Long carId,
-                                            @RequestParam(required = false) Long userId)
+                                            @RequestParam(required = false) Long userId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime plannedEndDate)
     {
         User user = authService.fetchUserFromAuth();
 
@@ -71,7 +92,7 @@ public class LeaseController
 
             logger.info("Received request to start lease by admin for carId: {} and customer : {}", carId, customer.getEmail());
 
-            lease = leaseService.startLease(carId, customer);
+            lease = leaseService.startLease(carId, customer, plannedEndDate);
 
             logger.info("Lease started successfully by admin with ID: {}", lease.getId());
         }
@@ -80,7 +101,7 @@ public class LeaseController
         {
             logger.info("Received request to start lease for carId: {} by user : {}", carId, user.getEmail());
 
-            lease = leaseService.startLease(carId, user);
+            lease = leaseService.startLease(carId, user, plannedEndDate);
 
             logger.info("Lease started successfully with ID: {}", lease.getId());
         }
@@ -129,6 +150,120 @@ public class LeaseController
         return ResponseEntity.ok(lease);
     }
 
+    /**
+     * Starts leases on a batch of cars for the authenticated user, or for a customer when called by an admin.
+     *
+     * @param carIds       the IDs of the cars to lease
+     * @param userId       the ID of the customer, required when called by an admin
+     * @param allOrNothing whether one rejected car rolls back the whole batch, lease.batch.all-or-nothing when absent
+     * @return one result per car, in request order, with 409 when an all-or-nothing batch was rolled back
+     */
+    @PostMapping("/startLeases")
+    @PreAuthorize("hasAnyRole('ADMIN','END_CUSTOMER')")
+    public ResponseEntity<List<LeaseBatchResult>> startLeases(@RequestBody List<Long> carIds,
+                                                              @RequestParam(required = false) Long userId,
+                                                              @RequestParam(required = false) Boolean allOrNothing)
+    {
+        User customer = customerOf(authService.fetchUserFromAuth(), userId);
+
+        logger.info("Received request to start {} leases for user : {}", carIds.size(), customer.getEmail());
+
+        return batchResponse(leaseService.startLeases(carIds, customer, allOrNothing));
+    }
+
+    /**
+     * Ends a batch of leases of the authenticated user, or of a customer when called by an admin.
+     *
+     * @param leaseIds     the IDs of the leases to end
+     * @param userId       the ID of the customer, required when called by an admin
+     * @param allOrNothing whether one rejected lease rolls back the whole batch, lease.batch.all-or-nothing when absent
+     * @return one result per lease, in request order, with 409 when an all-or-nothing batch was rolled back
+     */
+    @PostMapping("/endLeases")
+    @PreAuthorize("hasAnyRole('ADMIN','END_CUSTOMER')")
+    public ResponseEntity<List<LeaseBatchResult>> endLeases(@RequestBody List<Long> leaseIds,
+                                                            @RequestParam(required = false) Long userId,
+                                                            @RequestParam(required = false) Boolean allOrNothing)
+    {
+        User customer = customerOf(authService.fetchUserFromAuth(), userId);
+
+        logger.info("Received request to end {} leases for user : {}", leaseIds.size(), customer.getEmail());
+
+        return batchResponse(leaseService.endLeases(leaseIds, customer, allOrNothing));
+    }
+
+    /**
+     * Holds an IDLE car for the authenticated user, or for a customer when called by an admin, so nobody
+     * else can lease it until the hold is released or expires. Holding it again renews the hold.
+     *
+     * @param carId   the ID of the car to hold
+     * @param userId  the ID of the customer, required when called by an admin
+     * @param seconds how long to hold the car, cars.hold.default-duration when absent
+     * @return the hold, with 409 when the car is not IDLE, held by another customer, or the customer holds as many
+     *         cars as they may still lease
+     */
+    @PostMapping("/hold")
+    @PreAuthorize("hasAnyRole('ADMIN','END_CUSTOMER')")
+    public ResponseEntity<CarHold> holdCar(@RequestParam Long carId,
+                                           @RequestParam(required = false) Long userId,
+                                           @RequestParam(required = false) Integer seconds)
+    {
+        UserPrincipal customer = customerOf(authService.fetchPrincipalFromAuth(), userId);
+
+        logger.info("Received request to hold carId: {} for user : {}", carId, customer.getEmail());
+
+        return ResponseEntity.ok(carHolds.hold(carId, customer.getUserId(), customer.getRole(), seconds));
+    }
+
+    /**
+     * Releases the hold of the authenticated user, or of a customer when called by an admin, on a car.
+     *
+     * @param carId  the ID of the held car
+     * @param userId the ID of the customer, required when called by an admin
+     * @return 204 when the hold was released, 404 when the customer held no such car
+     */
+    @PostMapping("/releaseHold")
+    @PreAuthorize("hasAnyRole('ADMIN','END_CUSTOMER')")
+    public ResponseEntity<Void> releaseHold(@RequestParam Long carId,
+                                            @RequestParam(required = false) Long userId)
+    {
+        UserPrincipal customer = customerOf(authService.fetchPrincipalFromAuth(), userId);
+
+        logger.info("Received request to release hold on carId: {} for user : {}", carId, customer.getEmail());
+
+        return carHolds.release(carId, customer.getUserId()) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private User customerOf(User user, Long userId)
+    {
+        if(user.getRole() != Role.ADMIN)
+            return user;
+
+        if(userId == null)
+            throw new FieldMissingException("Field 'userId' required when process initiated by ADMIN");
+
+        return userService.getUserById(userId);
+    }
+
+    // same as above without loading the users' leases and cars, for the requests that only need the id and role
+    private UserPrincipal customerOf(UserPrincipal user, Long userId)
+    {
+        if(user.getRole() != Role.ADMIN)
+            return user;
+
+        if(userId == null)
+            throw new FieldMissingException("Field 'userId' required when process initiated by ADMIN");
+
+        return userService.getPrincipalById(userId);
+    }
+
+    private static ResponseEntity<List<LeaseBatchResult>> batchResponse(List<LeaseBatchResult> results)
+    {
+        boolean rolledBack = results.stream().anyMatch(result -> result.getOutcome() == LeaseBatchResult.Outcome.ROLLED_BACK);
+
+        return ResponseEntity.status(rolledBack ? HttpStatus.CONFLICT : HttpStatus.OK).body(results);
+    }
+
     /**
      * Fetches lease details for a given lease ID.
      *
@@ -155,18 +290,18 @@ public class LeaseController
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'END_CUSTOMER')")
     @GetMapping("/getAllHistory")
-    public ResponseEntity<List<Lease>> getAllHistory()
+    public ResponseEntity<List<LeaseSummary>> getAllHistory()
     {
         logger.info("Received request for fetching lease details");
 
-        User user = authService.fetchUserFromAuth();
+        UserPrincipal user = authService.fetchPrincipalFromAuth();
 
-        List<Lease> leaseHistory;
+        List<LeaseSummary> leaseHistory;
 
         if(user.getRole().equals(Role.ADMIN))
         {
             logger.info("Fetching lease history for all users..");
-            leaseHistory = leaseService.getAllLeaseHistory();
+            leaseHistory = leaseService.getAllLeaseSummaries();
             logger.info("Fetched {} total lease records", leaseHistory.size());
 
         }
@@ -174,7 +309,7 @@ public class LeaseController
         {
             logger.info("Fetching lease history for user emailId {}", user.getEmail());
 
-            leaseHistory = leaseService.getLeaseHistoryForUser(user);
+            leaseHistory = leaseService.getLeaseSummariesForUser(user);
 
             logger.info("Fetched {} lease records for user : {}", leaseHistory.size(), user.getEmail());
         }
@@ -183,6 +318,57 @@ public class LeaseController
         return ResponseEntity.ok(leaseHistory);
     }
 
+    /**
+     * Fetches one page of the lease history, newest first: every customer's for an admin, the own for a customer.
+     *
+     * @param startedFrom  earliest start date, ISO date-time, optional
+     * @param startedTo    latest start date, optional
+     * @param endedFrom    earliest end date, optional
+     * @param endedTo      latest end date, optional
+     * @param state        lease state, optional
+     * @param cursor       nextCursor of the previous page, omitted for the first page
+     * @param size         page size, defaults to lease.page.default-size
+     * @param includeTotal whether to count all matching leases as well
+     * @return a response entity containing the page of matching leases
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'END_CUSTOMER')")
+    @GetMapping("/history")
+    public ResponseEntity<CursorPage<LeaseSummary>> getHistory(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startedFrom,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startedTo,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endedFrom,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endedTo,
+                                                               @RequestParam(required = false) State state,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(defaultValue = "false") boolean includeTotal)
+    {
+        UserPrincipal user = authService.fetchPrincipalFromAuth();
+
+        logger.info("Received request for fetching a page of lease history by {}", user.getEmail());
+
+        var history = leaseService.getLeaseHistory(user, new LeaseHistoryCriteria(startedFrom, startedTo, endedFrom, endedTo, state), cursor, size, includeTotal);
+
+        logger.info("Fetched lease history page size = {}", history.getSize());
+
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Streams the complete lease history as NDJSON, one lease per line (admin-only).
+     *
+     * @return a response written row by row as the leases are read
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLeaseHistory()
+    {
+        logger.info("Received request for exporting all lease history as ndjson");
+
+        StreamingResponseBody body = exportService::exportLeaseHistory;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Exports lease history for a specific user or all users as a PDF.
      *
@@ -0,0 +1,51 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * BulkRegistrationResult.java
+ *
+ * <p>
+ * Outcome of one row of a bulk car registration, in the order the cars were sent.
+ * Registered rows carry the new car id, rejected rows the reason.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class BulkRegistrationResult
+{
+    public enum Outcome
+    {
+        REGISTERED,
+        REJECTED
+    }
+
+    private final int index;
+
+    @JsonProperty("carnumber")
+    private final String licensePlateNumber;
+
+    private final Outcome outcome;
+
+    private final Long carId;
+
+    private final String message;
+
+    public static BulkRegistrationResult registered(int index, String licensePlateNumber, Long carId)
+    {
+        return new BulkRegistrationResult(index, licensePlateNumber, Outcome.REGISTERED, carId, null);
+    }
+
+    public static BulkRegistrationResult rejected(int index, String licensePlateNumber, String message)
+    {
+        return new BulkRegistrationResult(index, licensePlateNumber, Outcome.REJECTED, null, message);
+    }
+}
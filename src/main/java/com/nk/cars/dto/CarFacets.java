@@ -0,0 +1,40 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * CarFacets.java
+ *
+ * <p>
+ * Number of cars per make and per year among all cars matching a search, not just the returned page.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class CarFacets
+{
+    private final SortedMap<String, Long> make;
+
+    private final SortedMap<Integer, Long> year;
+
+    @JsonIgnore // returned as the page's totalCount
+    private final long total;
+
+    /**
+     * @param total number of matching cars, which can exceed the facet sums when a car has no make or year
+     */
+    public static CarFacets of(Map<String, Long> makeCounts, Map<Integer, Long> yearCounts, long total)
+    {
+        return new CarFacets(new TreeMap<>(makeCounts), new TreeMap<>(yearCounts), total);
+    }
+}
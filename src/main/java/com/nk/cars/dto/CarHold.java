@@ -0,0 +1,29 @@
+package com.nk.cars.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * CarHold.java
+ *
+ * <p>
+ * A car reserved for one customer for a short while before the lease is started, see
+ * {@link com.nk.cars.service.CarHolds}.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class CarHold
+{
+    private final Long carId;
+
+    private final Long customerId;
+
+    private final LocalDateTime heldUntil;
+}
@@ -0,0 +1,73 @@
+package com.nk.cars.dto;
+
+import com.nk.cars.entity.Status;
+import com.nk.cars.exception.FieldMissingException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * CarSearchCriteria.java
+ *
+ * <p>
+ * Filters of the car search, every one of them optional. Make and model match exactly,
+ * the year range is inclusive on both ends.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CarSearchCriteria
+{
+    private final String make;
+
+    private final String model;
+
+    private final Integer yearFrom;
+
+    private final Integer yearTo;
+
+    private final Status status;
+
+    /**
+     * @throws FieldMissingException if the year range is empty
+     */
+    public CarSearchCriteria(String make, String model, Integer yearFrom, Integer yearTo, Status status)
+    {
+        if(yearFrom != null && yearTo != null && yearFrom > yearTo)
+            throw new FieldMissingException("Invalid year range: " + yearFrom + " to " + yearTo);
+
+        this.make = blankToNull(make);
+        this.model = blankToNull(model);
+        this.yearFrom = yearFrom;
+        this.yearTo = yearTo;
+        this.status = status;
+    }
+
+    public boolean matches(CarSummary car)
+    {
+        return (status == null || status == car.getStatus()) && matchesAttributes(car.getMake(), car.getModel(), car.getYear());
+    }
+
+    /**
+     * Same as {@link #matches(CarSummary)} without the status filter.
+     */
+    public boolean matchesAttributes(String carMake, String carModel, Integer carYear)
+    {
+        return (make == null || make.equals(carMake))
+                && (model == null || model.equals(carModel))
+                && (yearFrom == null || (carYear != null && carYear >= yearFrom))
+                && (yearTo == null || (carYear != null && carYear <= yearTo));
+    }
+
+    private static String blankToNull(String value)
+    {
+        return Objects.isNull(value) || value.isBlank() ? null : value.strip();
+    }
+}
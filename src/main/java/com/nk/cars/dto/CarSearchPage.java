@@ -0,0 +1,29 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CarSearchPage.java
+ *
+ * <p>
+ * One page of car search results, serialized as a {@link CursorPage} with the facets of the
+ * whole search next to it. Facets are left out when the caller did not ask for them.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class CarSearchPage
+{
+    @JsonUnwrapped
+    private final CursorPage<CarSummary> page;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final CarFacets facets;
+}
@@ -0,0 +1,62 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * CarSummary.java
+ *
+ * <p>
+ * Immutable listing view of a car, detached from the persistence context. This is what the
+ * fleet index holds and what the availability listings return. The version of the car it was read at
+ * tells which of two summaries of the same car is the newer one.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public final class CarSummary
+{
+    private final Long id;
+
+    private final String make;
+
+    private final String model;
+
+    private final Integer year;
+
+    @JsonProperty("carnumber")
+    private final String licensePlateNumber;
+
+    private final Status status;
+
+    private final String ownerName;
+
+    @JsonIgnore
+    private final long version;
+
+    /**
+     * @return true if this summary reflects a later change of the car than <code>other</code>
+     */
+    public boolean isNewerThan(CarSummary other)
+    {
+        return version > other.version;
+    }
+
+    public static CarSummary from(Car car)
+    {
+        return new CarSummary(car.getId(), car.getMake(), car.getModel(), car.getYear(), car.getLicensePlateNumber(),
+                car.getStatus(), car.getOwner() != null ? car.getOwner().getUsername() : null, car.getVersion());
+    }
+}
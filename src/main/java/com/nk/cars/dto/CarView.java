@@ -0,0 +1,48 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nk.cars.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * CarView.java
+ *
+ * <p>
+ * Car as returned by the owner and admin listings: the {@link CarSummary} fields plus the ids of
+ * the car's leases, which are loaded for the whole page in one query.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class CarView
+{
+    private final Long id;
+
+    private final String make;
+
+    private final String model;
+
+    private final Integer year;
+
+    @JsonProperty("carnumber")
+    private final String licensePlateNumber;
+
+    private final Status status;
+
+    private final String ownerName;
+
+    private final List<Long> leaseIds;
+
+    public static CarView of(CarSummary car, List<Long> leaseIds)
+    {
+        return new CarView(car.getId(), car.getMake(), car.getModel(), car.getYear(), car.getLicensePlateNumber(),
+                car.getStatus(), car.getOwnerName(), leaseIds);
+    }
+}
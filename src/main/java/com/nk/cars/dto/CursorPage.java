@@ -0,0 +1,96 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nk.cars.exception.FieldMissingException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage.java
+ *
+ * <p>
+ * One page of a keyset paginated listing. The next page is requested by passing
+ * <code>nextCursor</code> back as the <code>cursor</code> parameter, it is null on the last page.
+ * The total count is only filled in when the caller asked for it, since it needs a separate count query.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CursorPage<T>
+{
+    private List<T> items;
+
+    private int size;
+
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalCount;
+
+    /**
+     * Builds the page from a fetch of up to <code>size + 1</code> rows ordered by id, the extra
+     * row only tells whether another page follows.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, Long> idOf, Long totalCount)
+    {
+        return withCursor(fetched, size, item -> encodeCursor(idOf.apply(item)), totalCount);
+    }
+
+    /**
+     * Same as {@link #of(List, int, Function, Long)} for listings ordered by more than the id.
+     *
+     * @param cursorOf encodes the position of an item, applied to the last item of the page
+     */
+    public static <T> CursorPage<T> withCursor(List<T> fetched, int size, Function<T, String> cursorOf, Long totalCount)
+    {
+        if(fetched.size() <= size)
+            return new CursorPage<>(fetched, fetched.size(), null, totalCount);
+
+        List<T> items = fetched.subList(0, size);
+
+        return new CursorPage<>(items, size, cursorOf.apply(items.get(size - 1)), totalCount);
+    }
+
+    /**
+     * @param mapper converts all items of the page at once, so it can batch its own lookups
+     */
+    public <R> CursorPage<R> mapItems(Function<List<T>, List<R>> mapper)
+    {
+        return new CursorPage<>(mapper.apply(items), size, nextCursor, totalCount);
+    }
+
+    public static String encodeCursor(long lastId)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id after which the page starts, 0 for the first page
+     * @throws FieldMissingException if the cursor was not issued by {@link #encodeCursor(long)}
+     */
+    public static long decodeCursor(String cursor)
+    {
+        if(cursor == null || cursor.isBlank())
+            return 0L;
+
+        try
+        {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        }
+        catch (IllegalArgumentException e) // also covers NumberFormatException
+        {
+            throw new FieldMissingException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nk.cars.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * LeaseBatchResult.java
+ *
+ * <p>
+ * Outcome of one item of a batch lease start or end, in the order the ids were sent.
+ * Applied items carry the lease and car ids, rejected ones the reason. In all-or-nothing mode
+ * one rejected item rolls the whole batch back and every other item is reported as rolled back.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class LeaseBatchResult
+{
+    public enum Outcome
+    {
+        STARTED,
+        ENDED,
+        REJECTED,
+        ROLLED_BACK
+    }
+
+    private final int index;
+
+    private final Long carId;
+
+    private final Long leaseId;
+
+    private final Outcome outcome;
+
+    private final String message;
+
+    public static LeaseBatchResult applied(int index, Outcome outcome, Long carId, Long leaseId)
+    {
+        return new LeaseBatchResult(index, carId, leaseId, outcome, null);
+    }
+
+    public static LeaseBatchResult rejected(int index, Long carId, Long leaseId, String message)
+    {
+        return new LeaseBatchResult(index, carId, leaseId, Outcome.REJECTED, message);
+    }
+
+    public static LeaseBatchResult rolledBack(int index, Long carId, Long leaseId)
+    {
+        return new LeaseBatchResult(index, carId, leaseId, Outcome.ROLLED_BACK, "Not applied, another item of the batch was rejected");
+    }
+
+    @JsonIgnore
+    public boolean isRejected()
+    {
+        return outcome == Outcome.REJECTED;
+    }
+
+    /**
+     * @return this result as reported after its batch was rolled back, rejected items keep their reason
+     */
+    public LeaseBatchResult rolledBack()
+    {
+        return isRejected() ? this : rolledBack(index, carId, outcome == Outcome.STARTED ? null : leaseId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.nk.cars.dto;
+
+import com.nk.cars.exception.FieldMissingException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * LeaseCursor.java
+ *
+ * <p>
+ * Position in the lease history, which is ordered by start date and then id, newest first.
+ * Start dates are not unique, so the id of the last lease of a page is part of the cursor.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class LeaseCursor
+{
+    private final LocalDateTime startDate;
+
+    private final long id;
+
+    public static String encode(LeaseSummary lease)
+    {
+        String position = lease.getStartDate() + "_" + lease.getId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the position after which the page starts, null for the first page
+     * @throws FieldMissingException if the cursor was not issued by {@link #encode(LeaseSummary)}
+     */
+    public static LeaseCursor decode(String cursor)
+    {
+        if(cursor == null || cursor.isBlank())
+            return null;
+
+        try
+        {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('_');
+
+            return new LeaseCursor(LocalDateTime.parse(position.substring(0, separator)), Long.parseLong(position.substring(separator + 1)));
+        }
+        catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e)
+        {
+            throw new FieldMissingException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.nk.cars.dto;
+
+import com.nk.cars.entity.State;
+import com.nk.cars.exception.FieldMissingException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * LeaseHistoryCriteria.java
+ *
+ * <p>
+ * Filters of the lease history, every one of them optional. The start and end ranges are inclusive
+ * on both ends, a lease that has not ended yet never matches an end range.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class LeaseHistoryCriteria
+{
+    private final LocalDateTime startedFrom;
+
+    private final LocalDateTime startedTo;
+
+    private final LocalDateTime endedFrom;
+
+    private final LocalDateTime endedTo;
+
+    private final State state;
+
+    /**
+     * @throws FieldMissingException if a date range is empty
+     */
+    public LeaseHistoryCriteria(LocalDateTime startedFrom, LocalDateTime startedTo, LocalDateTime endedFrom, LocalDateTime endedTo, State state)
+    {
+        validateRange("start", startedFrom, startedTo);
+        validateRange("end", endedFrom, endedTo);
+
+        this.startedFrom = startedFrom;
+        this.startedTo = startedTo;
+        this.endedFrom = endedFrom;
+        this.endedTo = endedTo;
+        this.state = state;
+    }
+
+    private static void validateRange(String name, LocalDateTime from, LocalDateTime to)
+    {
+        if(from != null && to != null && from.isAfter(to))
+            throw new FieldMissingException("Invalid " + name + " date range: " + from + " to " + to);
+    }
+}
@@ -0,0 +1,45 @@
+package com.nk.cars.dto;
+
+import com.nk.cars.entity.State;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * LeaseSummary.java
+ *
+ * <p>
+ * Listing view of a lease with the same JSON fields as the entity, read in one query together
+ * with its customer and car instead of loading both entities per lease.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public final class LeaseSummary
+{
+    private final Long id;
+
+    private final LocalDateTime startDate;
+
+    private final LocalDateTime endDate;
+
+    private final State state;
+
+    private final String customerDetails;
+
+    private final String carDetails;
+
+    /**
+     * Constructor used by the JPQL projections in LeaseRepository.
+     */
+    public LeaseSummary(Long id, LocalDateTime startDate, LocalDateTime endDate, State state,
+                        String customerEmail, String carMake, String carModel)
+    {
+        this(id, startDate, endDate, state, customerEmail, carMake != null || carModel != null ? carMake + " " + carModel : null);
+    }
+}
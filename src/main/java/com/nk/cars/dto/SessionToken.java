@@ -0,0 +1,28 @@
+package com.nk.cars.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SessionToken.java
+ *
+ * <p>
+ * Locally signed token returned by /auth/exchange in place of a provider access token.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class SessionToken
+{
+    private String accessToken;
+
+    private String tokenType;
+
+    private long expiresIn; // seconds
+}
@@ -0,0 +1,67 @@
+package com.nk.cars.dto;
+
+import com.nk.cars.entity.Role;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UserPrincipal.java
+ *
+ * <p>
+ * Lightweight authenticated principal holding only what authorization needs (id, email, role).
+ * Built from JWT claims or a single-row projection, so authenticating never loads the cars and
+ * leases of the {@link com.nk.cars.entity.User} entity.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.dto
+ * @created Oct 18, 2026
+ */
+@Getter
+public final class UserPrincipal implements UserDetails
+{
+    private final Long userId;
+
+    private final String email;
+
+    private final Role role;
+
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(Long userId, String email, Role role)
+    {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "userId=" + userId +
+                ", email='" + email + '\'' +
+                ", role=" + role +
+                '}';
+    }
+}
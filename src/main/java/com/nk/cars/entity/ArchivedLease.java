@@ -0,0 +1,69 @@
+package com.nk.cars.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * ArchivedLease.java
+ *
+ * <p>
+ * A lease that ended long enough ago to be moved out of the lease table by the LeaseArchiver. It keeps the
+ * id it had as a lease, so lease ids stay unique over both tables. Customers and cars are not loaded with it.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.entity
+ * @created Oct 18, 2026
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_archived_lease_customer_start", columnList = "customer_user_id, start_date"), // customer history
+        @Index(name = "idx_archived_lease_start", columnList = "start_date, id"), // history of all customers, newest first
+        @Index(name = "idx_archived_lease_car", columnList = "car_id") // lease ids of a car listing
+})
+@Data
+public class ArchivedLease
+{
+    @Id
+    private Long id;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    @Enumerated(EnumType.ORDINAL) // copied as is from the lease table
+    private State state;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private User customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Car car;
+
+    /**
+     * @return this lease as the lease it was archived from, for callers that read history as leases
+     */
+    public Lease toLease()
+    {
+        Lease lease = new Lease();
+        lease.setId(id);
+        lease.setStartDate(startDate);
+        lease.setEndDate(endDate);
+        lease.setState(state);
+        lease.setCustomer(customer);
+        lease.setCar(car);
+        return lease;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedLease{" +
+                "id=" + id +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", state=" + state +
+                '}';
+    }
+}
@@ -1,10 +1,12 @@
 package com.nk.cars.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.nk.cars.utils.CommonUtils;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Collections;
 import java.util.List;
@@ -18,11 +20,19 @@ import java.util.List;
  */
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_car_status_id", columnList = "status, id"),
+        @Index(name = "idx_car_owner", columnList = "owner_user_id"),
+        @Index(name = "idx_car_make_model_year", columnList = "make, model, year"), // search filters and make facet
+        @Index(name = "idx_car_year", columnList = "year") // year range without a make, and year facet
+})
 @Data
 public class Car
 {
+    // Sequence ids let hibernate batch inserts, ids are handed out in blocks of 50 (see CarIdSequenceConfig)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", sequenceName = "car_seq", allocationSize = 50)
     private Long id;
 
     private String make;
@@ -35,8 +45,17 @@ public class Car
     @JsonProperty("carnumber")
     private String licensePlateNumber;
 
+    // stored as the ordinal, which the JDBC batch in CarStatusRepositoryImpl binds directly
+    @Enumerated(EnumType.ORDINAL)
     private Status status = Status.IDLE;
 
+    // Bumped by every write, the conditional status updates in CarRepository included, so changes to a car can be ordered
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @JsonBackReference("car-owner")
     @ManyToOne
     private User owner;
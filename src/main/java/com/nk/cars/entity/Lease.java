@@ -15,6 +15,12 @@ import java.time.LocalDateTime;
  * @created Nov 23, 2024
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_lease_customer_start", columnList = "customer_user_id, start_date"), // customer history
+        @Index(name = "idx_lease_state_start", columnList = "state, start_date"), // history by state
+        @Index(name = "idx_lease_start", columnList = "start_date, id"), // history of all customers, newest first
+        @Index(name = "idx_lease_state_end", columnList = "state, end_date") // leases due for the archive
+})
 @Data
 public class Lease
 {
@@ -26,6 +32,9 @@ public class Lease
 
     private LocalDateTime endDate;
 
+    // optional, the lease is ended automatically once this has passed
+    private LocalDateTime plannedEndDate;
+
     //Automatically sets the state to ACTIVE
     public void setStartDate(LocalDateTime startDate)
     {
@@ -40,6 +49,8 @@ public class Lease
         this.state = State.ENDED;
     }
 
+    // stored as the ordinal, which the JDBC batch in LeaseBatchRepositoryImpl binds directly
+    @Enumerated(EnumType.ORDINAL)
     private State state;
 
     @ManyToOne
@@ -68,6 +79,7 @@ public class Lease
                 "id=" + id +
                 ", startDate=" + startDate +
                 ", endDate=" + endDate +
+                ", plannedEndDate=" + plannedEndDate +
                 ", state=" + state +
                 ", customer=" + getCustomerDetails() +
                 ", car=" + getCarDetails() +
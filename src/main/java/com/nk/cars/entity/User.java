@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -45,6 +46,12 @@ public class User implements UserDetails
     @JsonManagedReference("user-leases")
     private List<Lease> leases;
 
+    // Number of ACTIVE leases, changed only by the conditional updates in UserRepository, saving a user never writes it
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int activeLeaseCount;
+
     @Override
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
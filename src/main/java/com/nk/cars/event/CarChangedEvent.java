@@ -0,0 +1,25 @@
+package com.nk.cars.event;
+
+import com.nk.cars.dto.CarSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CarChangedEvent.java
+ *
+ * <p>
+ * Published whenever a car is saved, carrying its state after the change.
+ * Listeners run after the surrounding transaction commits, or right away when there is none, so events
+ * of concurrent transactions can arrive in any order; the version of the {@link CarSummary} orders them.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.event
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public class CarChangedEvent
+{
+    private final CarSummary car;
+}
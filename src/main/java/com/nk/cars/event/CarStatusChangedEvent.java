@@ -0,0 +1,28 @@
+package com.nk.cars.event;
+
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CarStatusChangedEvent.java
+ *
+ * <p>
+ * Published by the fleet index once a committed change moved a car to another status, or added a car.
+ * The previous status is null for a car the index did not know yet. This is also what the
+ * car status stream sends to its subscribers.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.event
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public class CarStatusChangedEvent
+{
+    private final CarSummary car;
+
+    private final Status previousStatus;
+}
@@ -0,0 +1,23 @@
+package com.nk.cars.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * LeaseChangedEvent.java
+ *
+ * <p>
+ * Published whenever a lease is started or ended, after the lease itself was saved.
+ * Listeners run after the surrounding transaction commits, or right away when there is none.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.event
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public class LeaseChangedEvent
+{
+    private final Long leaseId;
+}
@@ -0,0 +1,27 @@
+package com.nk.cars.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * LeaseEndPlannedEvent.java
+ *
+ * <p>
+ * Published when a lease is started with a planned end date, so the lease can be ended once it is due.
+ * Listeners run after the surrounding transaction commits, or right away when there is none.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.event
+ * @created Oct 18, 2026
+ */
+@Getter
+@AllArgsConstructor
+public class LeaseEndPlannedEvent
+{
+    private final Long leaseId;
+
+    private final LocalDateTime plannedEndDate;
+}
@@ -0,0 +1,20 @@
+package com.nk.cars.exception;
+
+/**
+ * ConflictException.java
+ *
+ * <p>
+ * Thrown when an action lost a race with a concurrent one, for example two customers leasing
+ * the same car, or when the record is no longer in the state the action requires.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.exception
+ * @created Oct 18, 2026
+ */
+public class ConflictException extends ActionNotAllowedException
+{
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nk.cars.exception;
+
+/**
+ * InvalidTokenException.java
+ *
+ * <p>
+ * Thrown when a bearer token is malformed or was rejected by its provider.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.exception
+ * @created Oct 18, 2026
+ */
+public class InvalidTokenException extends RuntimeException
+{
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nk.cars.exception;
+
+/**
+ * UpstreamUnavailableException.java
+ *
+ * <p>
+ * Thrown when a call to an external provider is refused locally, for example because its
+ * bulkhead is full, rather than attempted.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.exception
+ * @created Oct 18, 2026
+ */
+public class UpstreamUnavailableException extends RuntimeException
+{
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
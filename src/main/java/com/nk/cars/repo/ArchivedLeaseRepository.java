@@ -0,0 +1,51 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.entity.ArchivedLease;
+import com.nk.cars.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ArchivedLeaseRepository.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+@Repository
+public interface ArchivedLeaseRepository extends JpaRepository<ArchivedLease, Long>
+{
+    // archived leases are read as whole entities only for the PDF reports and single lookups, which need both
+    @Override
+    @EntityGraph(attributePaths = {"customer", "car"})
+    List<ArchivedLease> findAll();
+
+    @EntityGraph(attributePaths = {"customer", "car"})
+    List<ArchivedLease> findAllByCustomer(User customer);
+
+    @EntityGraph(attributePaths = {"customer", "car"})
+    Optional<ArchivedLease> findWithCustomerAndCarById(Long id);
+
+    /**
+     * Copies the given leases into the archive in one statement, the caller deletes them from the lease table.
+     *
+     * @return number of leases copied
+     */
+    @Modifying
+    @Query("insert into ArchivedLease (id, startDate, endDate, state, customer, car) " +
+            "select l.id, l.startDate, l.endDate, l.state, l.customer, l.car from Lease l where l.id in :leaseIds")
+    int copyFromLeases(Collection<Long> leaseIds);
+
+    /**
+     * @return those of the given ids that belong to archived leases
+     */
+    @Query("select a.id from ArchivedLease a where a.id in :leaseIds")
+    List<Long> findArchivedIds(Collection<Long> leaseIds);
+}
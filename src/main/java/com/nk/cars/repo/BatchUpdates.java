@@ -0,0 +1,68 @@
+package com.nk.cars.repo;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * BatchUpdates.java
+ *
+ * <p>
+ * What the conditional JDBC batches of the repository fragments share: reading the update count of every
+ * row, and bringing the persistence context up to date afterwards.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+final class BatchUpdates
+{
+    private BatchUpdates()
+    {
+    }
+
+    /**
+     * A driver may report {@link Statement#SUCCESS_NO_INFO} instead of a count, or {@link Statement#EXECUTE_FAILED}
+     * for a row when it goes on after a failure. Either way it is unknown whether the condition held, so the batch
+     * fails and its transaction rolls back rather than reporting a row as moved or not on a guess.
+     *
+     * @return per row, 1 if it was updated and 0 if not
+     * @throws IllegalStateException if the count of any row is unknown
+     */
+    static int[] updateCounts(int[] counts, String sql)
+    {
+        int[] updated = new int[counts.length];
+
+        for(int i = 0; i < counts.length; i++)
+        {
+            if(counts[i] == Statement.SUCCESS_NO_INFO || counts[i] == Statement.EXECUTE_FAILED)
+                throw new IllegalStateException("The driver reported no update count for row " + i + " of batch '" + sql + "'");
+
+            updated[i] = counts[i] > 0 ? 1 : 0;
+        }
+
+        return updated;
+    }
+
+    /**
+     * Reads back those of the updated entities the persistence context already holds, which the batch left stale.
+     * They stay managed, so cascades from entities referencing them keep working. An entity not loaded is left
+     * alone, it is read fresh when first used.
+     */
+    static void refreshLoaded(EntityManager entityManager, Class<?> entityClass, List<Long> ids, int[] updated)
+    {
+        for(int i = 0; i < updated.length; i++)
+        {
+            if(updated[i] == 0)
+                continue;
+
+            Object entity = entityManager.getReference(entityClass, ids.get(i));
+
+            if(Hibernate.isInitialized(entity))
+                entityManager.refresh(entity);
+        }
+    }
+}
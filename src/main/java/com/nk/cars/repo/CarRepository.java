@@ -1,11 +1,18 @@
 package com.nk.cars.repo;
 
+import com.nk.cars.dto.CarSummary;
 import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Status;
 import com.nk.cars.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CarOwnerRepository.java
@@ -15,9 +22,60 @@ import java.util.List;
  * @created Nov 23, 2024
  */
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long>
+public interface CarRepository extends JpaRepository<Car, Long>, CarSearchRepository, CarStatusRepository
 {
     boolean existsCarByLicensePlateNumber(String licensePlateNumber);
 
+    /**
+     * @return those of the given license plates that are already registered, in a single query
+     */
+    @Query("select c.licensePlateNumber from Car c where c.licensePlateNumber in :licensePlateNumbers")
+    Set<String> findRegisteredLicensePlates(Collection<String> licensePlateNumbers);
+
     List<Car> findAllByOwner(User owner);
+
+    long countByStatus(Status status);
+
+    /**
+     * Moves the car to <code>to</code> only if it is still in <code>from</code>, a compare-and-set in one statement.
+     * Pending changes are flushed first. The persistence context is left as it is, a car loaded before is stale
+     * afterwards and has to be refreshed by the caller.
+     *
+     * @return 1 if the car moved, 0 if it is missing or in another status
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Car c set c.status = :to, c.version = c.version + 1 where c.id = :carId and c.status = :from")
+    int updateStatusIf(Long carId, Status from, Status to);
+
+    String SELECT_SUMMARY = "select new com.nk.cars.dto.CarSummary(c.id, c.make, c.model, c.year, c.licensePlateNumber, c.status, o.email, c.version) " +
+            "from Car c left join c.owner o ";
+
+    /**
+     * Listing view of the whole fleet in a single query, used to (re)build the fleet index.
+     */
+    @Query(SELECT_SUMMARY)
+    List<CarSummary> findAllSummaries();
+
+    /**
+     * One keyset page of the fleet: the first <code>limit</code> cars with an id above <code>afterId</code>.
+     * Also the chunks of the export.
+     */
+    @Query(SELECT_SUMMARY + "where c.id > :afterId order by c.id")
+    List<CarSummary> findSummaryPage(Long afterId, Limit limit);
+
+    /**
+     * Same as {@link #findSummaryPage(Long, Limit)} for cars in the given status,
+     * served as a range scan of the (status, id) index on {@link Car}.
+     */
+    @Query(SELECT_SUMMARY + "where c.status = :status and c.id > :afterId order by c.id")
+    List<CarSummary> findSummaryPageByStatus(Status status, Long afterId, Limit limit);
+
+    /**
+     * Cars of one owner, looked up by id so the owner entity itself does not have to be loaded first.
+     */
+    @Query(SELECT_SUMMARY + "where o.userId = :ownerId order by c.id")
+    List<CarSummary> findSummariesByOwnerId(Long ownerId);
+
+    @Query(SELECT_SUMMARY + "where c.id in :carIds")
+    List<CarSummary> findSummariesByIds(Collection<Long> carIds);
 }
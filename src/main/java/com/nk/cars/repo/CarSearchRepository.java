@@ -0,0 +1,32 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSummary;
+
+import java.util.List;
+
+/**
+ * CarSearchRepository.java
+ *
+ * <p>
+ * Car search with optional filters. Only the filters that are set end up in the query,
+ * so each search can use the index that fits it.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public interface CarSearchRepository
+{
+    /**
+     * @return up to <code>limit</code> cars matching the criteria with an id above <code>afterId</code>, ordered by id
+     */
+    List<CarSummary> search(CarSearchCriteria criteria, long afterId, int limit);
+
+    /**
+     * @return counts per make and per year over all cars matching the criteria, two grouped queries
+     */
+    CarFacets facets(CarSearchCriteria criteria);
+}
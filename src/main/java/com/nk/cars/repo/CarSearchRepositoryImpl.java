@@ -0,0 +1,115 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CarSearchRepositoryImpl.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public class CarSearchRepositoryImpl implements CarSearchRepository
+{
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CarSummary> search(CarSearchCriteria criteria, long afterId, int limit)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CarSummary> query = builder.createQuery(CarSummary.class);
+        Root<Car> car = query.from(Car.class);
+        Join<Car, User> owner = car.join("owner", JoinType.LEFT);
+
+        List<Predicate> predicates = predicates(builder, car, criteria);
+        predicates.add(builder.greaterThan(car.get("id"), afterId));
+
+        query.select(builder.construct(CarSummary.class, car.get("id"), car.get("make"), car.get("model"), car.get("year"),
+                        car.get("licensePlateNumber"), car.get("status"), owner.get("email"), car.get("version")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(car.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public CarFacets facets(CarSearchCriteria criteria)
+    {
+        Map<String, Long> makes = new HashMap<>();
+        long total = 0;
+
+        for(Tuple row : countBy("make", criteria))
+        {
+            total += row.get(1, Long.class);
+
+            if(row.get(0) != null)
+                makes.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+
+        Map<Integer, Long> years = new HashMap<>();
+
+        for(Tuple row : countBy("year", criteria))
+        {
+            if(row.get(0) != null)
+                years.put(row.get(0, Integer.class), row.get(1, Long.class));
+        }
+
+        return CarFacets.of(makes, years, total);
+    }
+
+    private List<Tuple> countBy(String attribute, CarSearchCriteria criteria)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> car = query.from(Car.class);
+        Path<Object> groupedBy = car.get(attribute);
+
+        query.multiselect(groupedBy, builder.count(car))
+                .where(predicates(builder, car, criteria).toArray(Predicate[]::new))
+                .groupBy(groupedBy);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder builder, Root<Car> car, CarSearchCriteria criteria)
+    {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if(criteria.getMake() != null)
+            predicates.add(builder.equal(car.get("make"), criteria.getMake()));
+
+        if(criteria.getModel() != null)
+            predicates.add(builder.equal(car.get("model"), criteria.getModel()));
+
+        if(criteria.getYearFrom() != null)
+            predicates.add(builder.greaterThanOrEqualTo(car.get("year"), criteria.getYearFrom()));
+
+        if(criteria.getYearTo() != null)
+            predicates.add(builder.lessThanOrEqualTo(car.get("year"), criteria.getYearTo()));
+
+        if(criteria.getStatus() != null)
+            predicates.add(builder.equal(car.get("status"), criteria.getStatus()));
+
+        return predicates;
+    }
+}
@@ -0,0 +1,28 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.entity.Status;
+
+import java.util.List;
+
+/**
+ * CarStatusRepository.java
+ *
+ * <p>
+ * Status changes of many cars at once, for the batch lease operations.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public interface CarStatusRepository
+{
+    /**
+     * Same as {@link CarRepository#updateStatusIf(Long, Status, Status)} for every car in the list,
+     * sent to the database as one JDBC batch.
+     *
+     * @return per car in list order, 1 if it moved, 0 if it is missing or in another status
+     * @throws IllegalStateException if the driver does not report the update count of every row
+     */
+    int[] updateStatusesIf(List<Long> carIds, Status from, Status to);
+}
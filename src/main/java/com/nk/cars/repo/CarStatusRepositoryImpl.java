@@ -0,0 +1,55 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * CarStatusRepositoryImpl.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public class CarStatusRepositoryImpl implements CarStatusRepository
+{
+    // a bulk JPQL update only reports the total, the JDBC batch reports a count per car
+    private static final String UPDATE_STATUS_IF = "update car set status = ?, version = version + 1 where id = ? and status = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] updateStatusesIf(List<Long> carIds, Status from, Status to)
+    {
+        if(carIds.isEmpty())
+            return new int[0];
+
+        entityManager.flush();
+
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS_IF))
+            {
+                for(Long carId : carIds)
+                {
+                    statement.setInt(1, to.ordinal());
+                    statement.setLong(2, carId);
+                    statement.setInt(3, from.ordinal());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+
+        int[] updated = BatchUpdates.updateCounts(counts, UPDATE_STATUS_IF);
+
+        BatchUpdates.refreshLoaded(entityManager, Car.class, carIds, updated);
+
+        return updated;
+    }
+}
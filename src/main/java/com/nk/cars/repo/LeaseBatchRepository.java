@@ -0,0 +1,27 @@
+package com.nk.cars.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * LeaseBatchRepository.java
+ *
+ * <p>
+ * Ends many leases at once, for the batch lease operations.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public interface LeaseBatchRepository
+{
+    /**
+     * Same as {@link LeaseRepository#endIfActive(Long, LocalDateTime)} for every lease in the list,
+     * sent to the database as one JDBC batch.
+     *
+     * @return per lease in list order, 1 if it was ended, 0 if it is missing or not active
+     * @throws IllegalStateException if the driver does not report the update count of every row
+     */
+    int[] endIfActive(List<Long> leaseIds, LocalDateTime endDate);
+}
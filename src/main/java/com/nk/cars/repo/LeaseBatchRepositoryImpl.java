@@ -0,0 +1,57 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.State;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * LeaseBatchRepositoryImpl.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public class LeaseBatchRepositoryImpl implements LeaseBatchRepository
+{
+    private static final String END_IF_ACTIVE = "update lease set end_date = ?, state = ? where id = ? and state = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] endIfActive(List<Long> leaseIds, LocalDateTime endDate)
+    {
+        if(leaseIds.isEmpty())
+            return new int[0];
+
+        entityManager.flush();
+
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(END_IF_ACTIVE))
+            {
+                for(Long leaseId : leaseIds)
+                {
+                    statement.setTimestamp(1, Timestamp.valueOf(endDate));
+                    statement.setInt(2, State.ENDED.ordinal());
+                    statement.setLong(3, leaseId);
+                    statement.setInt(4, State.ACTIVE.ordinal());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+
+        int[] updated = BatchUpdates.updateCounts(counts, END_IF_ACTIVE);
+
+        BatchUpdates.refreshLoaded(entityManager, Lease.class, leaseIds, updated);
+
+        return updated;
+    }
+}
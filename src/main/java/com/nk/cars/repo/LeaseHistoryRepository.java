@@ -0,0 +1,35 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.dto.LeaseCursor;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+
+import java.util.List;
+
+/**
+ * LeaseHistoryRepository.java
+ *
+ * <p>
+ * Lease history with optional filters, newest first, over the lease table and the archive. Only the
+ * filters that are set end up in the query, so the customer history scans the (customer, start date)
+ * index and a state filter the (state, start date) one.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public interface LeaseHistoryRepository
+{
+    /**
+     * @param customerId only leases of this customer, null for all customers
+     * @param after      position of the last lease of the previous page, null for the first page
+     * @return up to <code>limit</code> matching leases after <code>after</code>, by start date and id descending
+     */
+    List<LeaseSummary> findHistory(LeaseHistoryCriteria criteria, Long customerId, LeaseCursor after, int limit);
+
+    /**
+     * @return number of leases matching the criteria over all pages
+     */
+    long countHistory(LeaseHistoryCriteria criteria, Long customerId);
+}
@@ -0,0 +1,131 @@
+package com.nk.cars.repo;
+
+import com.nk.cars.dto.LeaseCursor;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.entity.ArchivedLease;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * LeaseHistoryRepositoryImpl.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.repo
+ * @created Oct 18, 2026
+ */
+public class LeaseHistoryRepositoryImpl implements LeaseHistoryRepository
+{
+    private static final Comparator<LeaseSummary> NEWEST_FIRST = Comparator.comparing(LeaseSummary::getStartDate,
+            Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).thenComparing(LeaseSummary::getId).reversed();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LeaseSummary> findHistory(LeaseHistoryCriteria criteria, Long customerId, LeaseCursor after, int limit)
+    {
+        List<LeaseSummary> leases = findHistory(Lease.class, criteria, customerId, after, limit);
+
+        if(criteria.getState() == State.ACTIVE) // the archive only holds ended leases
+            return leases;
+
+        // each tier returns its own newest matches, the page is the newest of both
+        List<LeaseSummary> archived = findHistory(ArchivedLease.class, criteria, customerId, after, limit);
+
+        if(archived.isEmpty())
+            return leases;
+
+        return Stream.concat(leases.stream(), archived.stream()).sorted(NEWEST_FIRST).limit(limit).toList();
+    }
+
+    @Override
+    public long countHistory(LeaseHistoryCriteria criteria, Long customerId)
+    {
+        long leases = countHistory(Lease.class, criteria, customerId);
+
+        return criteria.getState() == State.ACTIVE ? leases : leases + countHistory(ArchivedLease.class, criteria, customerId);
+    }
+
+    private <T> List<LeaseSummary> findHistory(Class<T> tier, LeaseHistoryCriteria criteria, Long customerId, LeaseCursor after, int limit)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LeaseSummary> query = builder.createQuery(LeaseSummary.class);
+        Root<T> lease = query.from(tier);
+        Join<T, User> customer = lease.join("customer", JoinType.LEFT);
+        Join<T, Car> car = lease.join("car", JoinType.LEFT);
+
+        List<Predicate> predicates = predicates(builder, lease, criteria, customerId);
+
+        if(after != null)
+        {
+            Path<LocalDateTime> startDate = lease.get("startDate");
+
+            predicates.add(builder.or(builder.lessThan(startDate, after.getStartDate()),
+                    builder.and(builder.equal(startDate, after.getStartDate()), builder.lessThan(lease.get("id"), after.getId()))));
+        }
+
+        query.select(builder.construct(LeaseSummary.class, lease.get("id"), lease.get("startDate"), lease.get("endDate"),
+                        lease.get("state"), customer.get("email"), car.get("make"), car.get("model")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.desc(lease.get("startDate")), builder.desc(lease.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private <T> long countHistory(Class<T> tier, LeaseHistoryCriteria criteria, Long customerId)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> lease = query.from(tier);
+
+        query.select(builder.count(lease)).where(predicates(builder, lease, criteria, customerId).toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder builder, Root<?> lease, LeaseHistoryCriteria criteria, Long customerId)
+    {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if(customerId != null)
+            predicates.add(builder.equal(lease.get("customer").get("userId"), customerId)); // the foreign key, no join
+
+        if(criteria.getState() != null)
+            predicates.add(builder.equal(lease.get("state"), criteria.getState()));
+
+        Path<LocalDateTime> startDate = lease.get("startDate");
+        Path<LocalDateTime> endDate = lease.get("endDate");
+
+        if(criteria.getStartedFrom() != null)
+            predicates.add(builder.greaterThanOrEqualTo(startDate, criteria.getStartedFrom()));
+
+        if(criteria.getStartedTo() != null)
+            predicates.add(builder.lessThanOrEqualTo(startDate, criteria.getStartedTo()));
+
+        if(criteria.getEndedFrom() != null)
+            predicates.add(builder.greaterThanOrEqualTo(endDate, criteria.getEndedFrom()));
+
+        if(criteria.getEndedTo() != null)
+            predicates.add(builder.lessThanOrEqualTo(endDate, criteria.getEndedTo()));
+
+        return predicates;
+    }
+}
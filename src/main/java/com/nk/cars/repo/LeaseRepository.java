@@ -1,11 +1,22 @@
 package com.nk.cars.repo;
 
+import com.nk.cars.dto.LeaseSummary;
 import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.State;
 import com.nk.cars.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * LeaseRepository.java
@@ -16,7 +27,131 @@ import java.util.List;
  */
 
 @Repository
-public interface LeaseRepository extends JpaRepository<Lease, Long>
+public interface LeaseRepository extends JpaRepository<Lease, Long>, LeaseBatchRepository, LeaseHistoryRepository
 {
     List<Lease> findAllByCustomer(User customer);
+
+    String SELECT_SUMMARY = "select new com.nk.cars.dto.LeaseSummary(l.id, l.startDate, l.endDate, l.state, cu.email, c.make, c.model) " +
+            "from Lease l left join l.customer cu left join l.car c ";
+
+    // the same rows from the archive, the history reads both tables
+    String SELECT_ARCHIVED_SUMMARY = "select new com.nk.cars.dto.LeaseSummary(a.id, a.startDate, a.endDate, a.state, cu.email, c.make, c.model) " +
+            "from ArchivedLease a left join a.customer cu left join a.car c ";
+
+    /**
+     * The whole history, the archive first since it holds the oldest leases. Each table is read in id order on its
+     * own, there is no order over both to sort for.
+     */
+    default List<LeaseSummary> findAllSummaries()
+    {
+        return Stream.concat(findArchivedSummaries().stream(), findLeaseTableSummaries().stream()).toList();
+    }
+
+    @Query(SELECT_SUMMARY + "order by l.id")
+    List<LeaseSummary> findLeaseTableSummaries();
+
+    @Query(SELECT_ARCHIVED_SUMMARY + "order by a.id")
+    List<LeaseSummary> findArchivedSummaries();
+
+    /**
+     * One keyset page of the lease table: the first <code>limit</code> leases with an id above <code>afterId</code>, for the export.
+     */
+    @Query(SELECT_SUMMARY + "where l.id > :afterId order by l.id")
+    List<LeaseSummary> findSummaryPage(Long afterId, Limit limit);
+
+    /**
+     * Same as {@link #findSummaryPage(Long, Limit)} over the archive.
+     */
+    @Query(SELECT_ARCHIVED_SUMMARY + "where a.id > :afterId order by a.id")
+    List<LeaseSummary> findArchivedSummaryPage(Long afterId, Limit limit);
+
+    /**
+     * Same as {@link #findAllSummaries()} for one customer.
+     */
+    default List<LeaseSummary> findSummariesByCustomerId(Long customerId)
+    {
+        return Stream.concat(findArchivedSummariesByCustomerId(customerId).stream(), findLeaseTableSummariesByCustomerId(customerId).stream()).toList();
+    }
+
+    @Query(SELECT_SUMMARY + "where cu.userId = :customerId order by l.id")
+    List<LeaseSummary> findLeaseTableSummariesByCustomerId(Long customerId);
+
+    @Query(SELECT_ARCHIVED_SUMMARY + "where cu.userId = :customerId order by a.id")
+    List<LeaseSummary> findArchivedSummariesByCustomerId(Long customerId);
+
+    /**
+     * Ends the lease only if it is still active, so of two concurrent attempts only one wins.
+     *
+     * @return 1 if the lease was ended, 0 if it was not active
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Lease l set l.endDate = :endDate, l.state = com.nk.cars.entity.State.ENDED where l.id = :leaseId and l.state = com.nk.cars.entity.State.ACTIVE")
+    int endIfActive(Long leaseId, LocalDateTime endDate);
+
+    /**
+     * Lease ids of all the given cars, one query per table, used to fill the leaseIds of a car listing.
+     * Archived ids come first, each table in id order.
+     */
+    default List<CarLeaseId> findLeaseIdsByCarIds(Collection<Long> carIds)
+    {
+        return Stream.concat(findArchivedLeaseIdsByCarIds(carIds).stream(), findLeaseTableIdsByCarIds(carIds).stream()).toList();
+    }
+
+    @Query("select l.car.id as carId, l.id as leaseId from Lease l where l.car.id in :carIds order by l.id")
+    List<CarLeaseId> findLeaseTableIdsByCarIds(Collection<Long> carIds);
+
+    @Query("select a.car.id as carId, a.id as leaseId from ArchivedLease a where a.car.id in :carIds order by a.id")
+    List<CarLeaseId> findArchivedLeaseIdsByCarIds(Collection<Long> carIds);
+
+    /**
+     * Ids of ENDED leases that ended before the given time, oldest id first, for the LeaseArchiver.
+     */
+    @Query("select l.id from Lease l where l.state = com.nk.cars.entity.State.ENDED and l.endDate < :endedBefore order by l.id")
+    List<Long> findArchivableIds(LocalDateTime endedBefore, Limit limit);
+
+    @Modifying
+    @Query("delete from Lease l where l.id in :leaseIds")
+    int deleteByIds(Collection<Long> leaseIds);
+
+    /**
+     * What a batch end needs to know about each lease, in one query and without loading customers or cars.
+     */
+    @Query("select l.id as id, l.state as state, l.customer.userId as customerId, l.car.id as carId, l.plannedEndDate as plannedEndDate " +
+            "from Lease l where l.id in :leaseIds")
+    List<LeaseRef> findLeaseRefsByIds(Collection<Long> leaseIds);
+
+    /**
+     * Planned ends of all active leases that have one, to rebuild the LeaseExpiryScheduler on startup, must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select l.id as leaseId, l.plannedEndDate as plannedEndDate from Lease l " +
+            "where l.state = com.nk.cars.entity.State.ACTIVE and l.plannedEndDate is not null")
+    Stream<PlannedEnd> streamPlannedEnds();
+
+    interface CarLeaseId
+    {
+        Long getCarId();
+
+        Long getLeaseId();
+    }
+
+    interface LeaseRef
+    {
+        Long getId();
+
+        State getState();
+
+        Long getCustomerId();
+
+        Long getCarId();
+
+        LocalDateTime getPlannedEndDate();
+    }
+
+    interface PlannedEnd
+    {
+        Long getLeaseId();
+
+        LocalDateTime getPlannedEndDate();
+    }
 }
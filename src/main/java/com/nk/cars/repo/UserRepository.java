@@ -1,8 +1,12 @@
 package com.nk.cars.repo;
 
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -21,4 +25,30 @@ public interface UserRepository extends JpaRepository<User, Long>
     User findByEmail(String email);
 
     List<User> findByName(String name);
+
+    // Selects only the columns needed for authentication, none of the eager associations
+    @Query("select new com.nk.cars.dto.UserPrincipal(u.userId, u.email, u.role) from User u where u.email = :email")
+    UserPrincipal findPrincipalByEmail(String email);
+
+    @Query("select new com.nk.cars.dto.UserPrincipal(u.userId, u.email, u.role) from User u where u.userId = :userId")
+    UserPrincipal findPrincipalById(Long userId);
+
+    @Query("select u.activeLeaseCount from User u where u.userId = :userId")
+    int findActiveLeaseCount(Long userId);
+
+    // Takes slots of the user's lease limit, all of them or none, no row is updated when fewer are free
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.activeLeaseCount = u.activeLeaseCount + :slots where u.userId = :userId and u.activeLeaseCount + :slots <= :limit")
+    int reserveLeaseSlots(Long userId, int slots, int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.activeLeaseCount = case when u.activeLeaseCount > :slots then u.activeLeaseCount - :slots else 0 end where u.userId = :userId")
+    int releaseLeaseSlots(Long userId, int slots);
+
+    // Recounts the ACTIVE leases of every user whose counter disagrees with the lease table, returns how many were off
+    @Transactional
+    @Modifying
+    @Query("update User u set u.activeLeaseCount = (select count(l) from Lease l where l.customer = u and l.state = com.nk.cars.entity.State.ACTIVE) " +
+            "where u.activeLeaseCount <> (select count(l) from Lease l where l.customer = u and l.state = com.nk.cars.entity.State.ACTIVE)")
+    int reconcileActiveLeaseCounts();
 }
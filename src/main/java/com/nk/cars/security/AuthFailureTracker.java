@@ -0,0 +1,48 @@
+package com.nk.cars.security;
+
+import com.nk.cars.utils.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AuthFailureTracker.java
+ *
+ * <p>
+ * Counts invalid token attempts per source address within a fixed window. Once a source reaches
+ * the limit, its malformed and already rejected tokens are turned away without any further check
+ * until the window ends. Tokens that can still be verified are verified as usual.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.security
+ * @created Oct 18, 2026
+ */
+@Component
+public class AuthFailureTracker
+{
+    private final ExpiringCache<String, AtomicInteger> failuresBySource;
+
+    private final int maxFailures;
+
+    public AuthFailureTracker(@Value("${auth.failure-limit.max-failures:20}") int maxFailures,
+                              @Value("${auth.failure-limit.window:1m}") Duration window,
+                              @Value("${auth.failure-limit.max-sources:10000}") int maxSources)
+    {
+        this.maxFailures = maxFailures;
+        this.failuresBySource = new ExpiringCache<>(maxSources, window);
+    }
+
+    public boolean isBlocked(String source)
+    {
+        AtomicInteger failures = failuresBySource.get(source);
+        return failures != null && failures.get() >= maxFailures;
+    }
+
+    public void recordFailure(String source)
+    {
+        failuresBySource.computeIfAbsent(source, key -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -1,7 +1,9 @@
 package com.nk.cars.security;
 
+import com.nk.cars.service.AuthMetrics;
 import com.nk.cars.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +29,15 @@ public class SecurityConfig
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private AuthFailureTracker authFailureTracker;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${auth.provider-token.exchange-only:false}")
+    private boolean providerTokensExchangeOnly;
+
     @Bean
     @ConditionalOnProperty(value = "spring.application.security", havingValue = "false") //disable security
     public DefaultSecurityFilterChain defaultSecurityFilterChain(HttpSecurity httpSecurity) throws Exception
@@ -49,7 +60,7 @@ public class SecurityConfig
                     .requestMatchers("/auth/**", "/login").permitAll() // makes login page accessible
                     .anyRequest().authenticated())
 
-                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class) // authenticates via token
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService, authFailureTracker, providerTokensExchangeOnly, authMetrics), UsernamePasswordAuthenticationFilter.class) // authenticates via token
 
                 .oauth2Login(oauth -> oauth
                         .userInfoEndpoint(user -> user
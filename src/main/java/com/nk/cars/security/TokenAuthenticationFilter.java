@@ -1,11 +1,16 @@
 package com.nk.cars.security;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.nk.cars.dto.ApiResponse;
 import com.nk.cars.dto.ResponseType;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.Role;
-import com.nk.cars.entity.User;
+import com.nk.cars.exception.InvalidTokenException;
+import com.nk.cars.exception.UpstreamUnavailableException;
+import com.nk.cars.service.AuthMetrics;
 import com.nk.cars.service.TokenService;
 import com.nk.cars.utils.CommonUtils;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,8 +36,17 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class TokenAuthenticationFilter extends OncePerRequestFilter
 {
+    private static final String EXCHANGE_PATH = "/auth/exchange";
+
     private final TokenService tokenService;
 
+    private final AuthFailureTracker authFailureTracker;
+
+    // When set, GitHub / Google tokens are only accepted by the exchange endpoint
+    private final boolean providerTokensExchangeOnly;
+
+    private final AuthMetrics authMetrics;
+
     private static final Logger logger = LogManager.getLogger();
 
     @Override
@@ -40,14 +54,35 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter
     {
         String authHeader = request.getHeader("Authorization");
 
+        String source = request.getRemoteAddr();
+
+        Timer.Sample sample = authMetrics.startTimer();
+
+        // set once authentication finished, so exceptions thrown further down the chain are not counted again
+        boolean authenticated = false;
+
         try
         {
             if (authHeader != null && authHeader.startsWith("Bearer "))
             {
                 String token = authHeader.substring(7);
 
+                // a source over the limit gets no more provider calls, whatever token it sends next,
+                // a locally signed token from the same address (NAT, proxies) is still checked by its signature
+                if(authFailureTracker.isBlocked(source) && !tokenService.isLocalToken(token))
+                {
+                    reject(response, sample, 401, "Too many invalid tokens, try again later", "blocked_source");
+                    return;
+                }
+
+                if(providerTokensExchangeOnly && !tokenService.isLocalToken(token) && !EXCHANGE_PATH.equals(request.getServletPath()))
+                {
+                    reject(response, sample, 401, "Provider tokens must be exchanged at " + EXCHANGE_PATH + " before use", "exchange_required");
+                    return;
+                }
+
                 //Validate the token
-                User userDetails = tokenService.validateTokenAndRetrieveUser(token);
+                UserPrincipal userDetails = tokenService.validateTokenAndRetrievePrincipal(token);
 
                 if (userDetails != null)
                 {
@@ -56,16 +91,17 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities()));
 
-                    if(userDetails.getRole().equals(Role.ROLE_PENDING)  && !request.getServletPath().contains("/auth/updateRole"))
+                    if(userDetails.getRole().equals(Role.ROLE_PENDING)  && !request.getServletPath().contains("/auth/updateRole")
+                            && !EXCHANGE_PATH.equals(request.getServletPath()))
                     {
-                        sendJsonErrorResponse(response, 403,"Your account role is currently pending. To proceed, please update your role by sending a PUT request to /auth/updateRole with the desired role (e.g., 'car_owner', 'customer', etc.).");
+                        reject(response, sample, 403,"Your account role is currently pending. To proceed, please update your role by sending a PUT request to /auth/updateRole with the desired role (e.g., 'car_owner', 'customer', etc.).", "role_pending");
                         return;
                     }
                 }
                 else
                 {
                     //returns response that user found in token is not registered
-                    sendJsonErrorResponse(response, 403, "User not found in records!");
+                    reject(response, sample, 403, "User not found in records!", "user_not_found");
                     return;
                 }
 
@@ -73,22 +109,61 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter
             else
             {
                 //Authorization header is missing
-                sendJsonErrorResponse(response, 401, "Authorization required!");
+                reject(response, sample, 401, "Authorization required!", "missing_header");
                 return;
             }
 
+            authMetrics.recordAuthentication(sample, "authenticated");
+            authenticated = true;
+
             //continue to filtering request
             filterChain.doFilter(request, response);
         }
+        catch (UpstreamUnavailableException exception)
+        {
+            logger.warn(exception.getMessage());
+
+            //provider could not be reached, the token itself may be fine
+            if(!authenticated)
+                recordRejection(sample, "upstream_unavailable");
+
+            sendJsonErrorResponse(response, 503, exception.getMessage());
+        }
+        catch (InvalidTokenException | JWTVerificationException exception)
+        {
+            logger.warn("Invalid token from {}: {}", source, exception.getMessage());
+
+            authFailureTracker.recordFailure(source);
+
+            if(!authenticated)
+                recordRejection(sample, "invalid_token");
+
+            sendJsonErrorResponse(response, 401,"Invalid token");
+        }
         catch (Exception exception)
         {
             logger.error(exception);
 
+            if(!authenticated)
+                recordRejection(sample, "error");
+
             //token not valid
             sendJsonErrorResponse(response, 401,"Invalid token");
         }
     }
 
+    private void reject(HttpServletResponse response, Timer.Sample sample, int statusCode, String message, String reason) throws IOException
+    {
+        recordRejection(sample, reason);
+        sendJsonErrorResponse(response, statusCode, message);
+    }
+
+    private void recordRejection(Timer.Sample sample, String reason)
+    {
+        authMetrics.recordRejection(reason);
+        authMetrics.recordAuthentication(sample, "rejected");
+    }
+
     private void sendJsonErrorResponse(HttpServletResponse response, int statusCode, String message) throws IOException
     {
         if(!response.isCommitted())
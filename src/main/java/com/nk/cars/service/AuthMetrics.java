@@ -0,0 +1,108 @@
+package com.nk.cars.service;
+
+import com.nk.cars.entity.AuthenticationProvider;
+import com.nk.cars.exception.InvalidTokenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * AuthMetrics.java
+ *
+ * <p>
+ * Timers and counters for the authentication pipeline, published under <code>auth.*</code>
+ * and readable at /actuator/metrics:
+ * <ul>
+ *     <li><code>auth.filter</code> - time spent authenticating a request, by outcome</li>
+ *     <li><code>auth.token.validation</code> - token validation, by provider</li>
+ *     <li><code>auth.upstream</code> - introspection calls to GitHub / Google, by provider and outcome</li>
+ *     <li><code>auth.user.lookup</code> - principal lookups in the database</li>
+ *     <li><code>auth.upstream.coalesced</code> - validations that joined an in-flight introspection</li>
+ *     <li><code>auth.rejections</code> - rejected requests, by reason</li>
+ * </ul>
+ * Cache and bulkhead figures are bound by {@link TokenCache} and {@link ProviderBulkheads}.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class AuthMetrics
+{
+    private final MeterRegistry meterRegistry;
+
+    public AuthMetrics(MeterRegistry meterRegistry)
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample startTimer()
+    {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordAuthentication(Timer.Sample sample, String outcome)
+    {
+        sample.stop(meterRegistry.timer("auth.filter", "outcome", outcome));
+    }
+
+    public void recordValidation(Timer.Sample sample, AuthenticationProvider provider)
+    {
+        sample.stop(meterRegistry.timer("auth.token.validation", "provider", tagValue(provider)));
+    }
+
+    public void recordRejection(String reason)
+    {
+        meterRegistry.counter("auth.rejections", "reason", reason).increment();
+    }
+
+    public void recordCoalesced(AuthenticationProvider provider)
+    {
+        meterRegistry.counter("auth.upstream.coalesced", "provider", tagValue(provider)).increment();
+    }
+
+    /**
+     * Times an introspection call, tagging it as success, rejected (400, 401, 403 or an error body from the provider) or error.
+     */
+    public <T> T timeUpstream(AuthenticationProvider provider, Supplier<T> call)
+    {
+        Timer.Sample sample = startTimer();
+        String outcome = "error";
+
+        try
+        {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        }
+        catch (HttpClientErrorException e)
+        {
+            outcome = TokenService.rejectsToken(e) ? "rejected" : "error";
+            throw e;
+        }
+        catch (InvalidTokenException e)
+        {
+            outcome = "rejected";
+            throw e;
+        }
+        finally
+        {
+            sample.stop(meterRegistry.timer("auth.upstream", "provider", tagValue(provider), "outcome", outcome));
+        }
+    }
+
+    public <T> T timeUserLookup(Supplier<T> lookup)
+    {
+        return meterRegistry.timer("auth.user.lookup").record(lookup);
+    }
+
+    private static String tagValue(AuthenticationProvider provider)
+    {
+        return provider.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,47 +1,117 @@
 package com.nk.cars.service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nk.cars.config.JwtKeyRegistry;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Role;
 import com.nk.cars.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Date;
 
 @Component
 public class AuthService {
 
-    private static final String SECRET_KEY = "nkcars";
+    private static final Duration DEFAULT_TOKEN_TTL = Duration.ofHours(24);
+
+    private static final String USER_ID_CLAIM = "uid";
+
+    private static final String ROLE_CLAIM = "role";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtKeyRegistry jwtKeyRegistry;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${auth.session-token.ttl:30m}")
+    private Duration sessionTokenTtl;
 
     public String generateToken(User user) {
+        return generateToken(user, DEFAULT_TOKEN_TTL);
+    }
+
+    /**
+     * Mints the short-lived token handed out in exchange for a verified provider token.
+     */
+    public String generateSessionToken(User user) {
+        return generateToken(user, sessionTokenTtl);
+    }
+
+    public Duration getSessionTokenTtl() {
+        return sessionTokenTtl;
+    }
+
+    private String generateToken(User user, Duration ttl) {
         return JWT.create()
+                .withKeyId(jwtKeyRegistry.getActiveKeyId())
                 .withSubject(user.getEmail()) // Use username or ID as subject
                 .withClaim("roles", user.getAuthorities().toString()) // Add roles
+                .withClaim(USER_ID_CLAIM, user.getUserId())
+                .withClaim(ROLE_CLAIM, user.getRole().name())
                 .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + 86400000)) // 24 hours
-                .sign(Algorithm.HMAC256(SECRET_KEY));
+                .withExpiresAt(new Date(System.currentTimeMillis() + ttl.toMillis()))
+                .sign(jwtKeyRegistry.getSigningAlgorithm());
     }
 
     public String extractUsername(String token) throws JWTVerificationException
     {
-        return JWT.require(Algorithm.HMAC256(SECRET_KEY))
-                .build()
-                .verify(token)
-                .getSubject();
+        return verify(token).getSubject();
     }
 
-    public User fetchUserFromAuth()
+    /**
+     * Builds the principal from the claims of a verified token. Tokens minted before the claims
+     * were added, and those of users whose role is still pending (it may have changed since the
+     * token was issued), fall back to a single-row lookup by email.
+     *
+     * @return the principal, or null if the user is not registered
+     */
+    public UserPrincipal extractPrincipal(String token) throws JWTVerificationException
+    {
+        DecodedJWT jwt = verify(token);
+
+        Long userId = jwt.getClaim(USER_ID_CLAIM).asLong();
+        String role = jwt.getClaim(ROLE_CLAIM).asString();
+
+        if(userId == null || role == null || Role.ROLE_PENDING.name().equals(role))
+            return authMetrics.timeUserLookup(() -> userService.getPrincipalByEmail(jwt.getSubject()));
+
+        return new UserPrincipal(userId, jwt.getSubject(), Role.valueOf(role));
+    }
+
+    private DecodedJWT verify(String token) throws JWTVerificationException
+    {
+        return jwtKeyRegistry.verify(token);
+    }
+
+    public UserPrincipal fetchPrincipalFromAuth()
     {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User principal = (User) authentication.getPrincipal();
 
-        if(principal == null)
+        if(authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal))
             throw new AccessDeniedException("Login again");
 
         return principal;
     }
 
+    /**
+     * Loads the full user entity of the authenticated principal. Only called by endpoints whose
+     * services need the entity, authentication itself never loads it.
+     */
+    public User fetchUserFromAuth()
+    {
+        return userService.getUserById(fetchPrincipalFromAuth().getUserId());
+    }
+
 }
@@ -0,0 +1,335 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarHold;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.Status;
+import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.exception.FieldMissingException;
+import com.nk.cars.exception.NotFoundException;
+import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CarHolds.java
+ *
+ * <p>
+ * Short-lived holds on IDLE cars, so a customer at checkout is not beaten to the car by another one.
+ * Holds only live in memory: granting, checking and releasing one is a single map operation and never
+ * writes to the database, and they are lost on restart, which merely frees the cars early. A car held by
+ * one customer cannot be leased by another and is left out of the available cars listing. A customer holds at
+ * most as many cars as they may still lease, the held cars are tracked per customer so the cap is checked and
+ * the hold granted in one step. Every hold is
+ * also queued by its expiry, a virtual thread takes expired holds off the queue and drops them from the
+ * map unless the hold was renewed or released meanwhile. Lookups ignore expired holds, so a car is
+ * free at its expiry even if the thread is behind.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class CarHolds implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @Autowired
+    private FleetVersion fleetVersion;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${cars.hold.default-duration:60s}")
+    private Duration defaultDuration;
+
+    @Value("${cars.hold.max-duration:10m}")
+    private Duration maxDuration;
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+
+    // car ids per customer id, a superset of the customer's active holds, only changed inside compute on the customer's entry
+    private final ConcurrentHashMap<Long, Set<Long>> carsByCustomer = new ConcurrentHashMap<>();
+
+    private final DelayQueue<Hold> expiries = new DelayQueue<>();
+
+    private final AtomicLong grantedHolds = new AtomicLong();
+
+    private final AtomicLong expiredHolds = new AtomicLong();
+
+    private Thread reaper;
+
+    @PostConstruct
+    public void startReaper()
+    {
+        reaper = Thread.ofVirtual().name("car-hold-reaper").start(this::reapExpired);
+    }
+
+    @PreDestroy
+    public void stopReaper()
+    {
+        reaper.interrupt();
+    }
+
+    /**
+     * Holds an IDLE car for the customer, a hold the customer already has on the car is renewed.
+     *
+     * @param seconds how long to hold the car, cars.hold.default-duration when null, at most cars.hold.max-duration
+     * @throws ConflictException if the car is not IDLE, another customer holds it, or the customer already holds as
+     *                           many cars as they may still lease
+     */
+    public CarHold hold(Long carId, Long customerId, Role role, Integer seconds)
+    {
+        if(role.equals(Role.CAR_OWNER))
+        {
+            throw new ActionNotAllowedException("User with ID " + customerId + " is a car owner and cannot hold a car");
+        }
+
+        Duration duration = resolveDuration(seconds);
+
+        CarSummary car = findCar(carId);
+
+        if(car.getStatus() != Status.IDLE)
+        {
+            throw new ConflictException("Car with ID " + carId + " is not available for leasing. Current status : " + car.getStatus());
+        }
+
+        int allowed = LeaseService.MAX_ACTIVE_LEASES - userRepository.findActiveLeaseCount(customerId);
+
+        Hold requested = new Hold(carId, customerId, System.nanoTime() + duration.toNanos());
+
+        // serialized per customer, so concurrent holds of one customer cannot pass the cap together
+        carsByCustomer.compute(customerId, (id, cars) -> {
+            Set<Long> held = cars != null ? cars : new HashSet<>();
+            held.removeIf(heldCarId -> !isHeldBy(heldCarId, customerId));
+
+            if(!held.contains(carId) && held.size() >= allowed)
+            {
+                throw new ConflictException("User with ID " + customerId + " holds " + held.size() + " cars and may lease "
+                        + Math.max(0, allowed) + " more, release a hold first");
+            }
+
+            Hold granted = holds.merge(carId, requested, (current, renewal) -> current.isActive() && !current.isOf(renewal.customerId) ? current : renewal);
+
+            if(granted != requested)
+            {
+                throw new ConflictException("Car with ID " + carId + " is held by another customer for " + granted.remaining().toSeconds() + " more seconds");
+            }
+
+            held.add(carId);
+            return held;
+        });
+
+        expiries.add(requested);
+        grantedHolds.incrementAndGet();
+        fleetVersion.increment();
+
+        logger.debug("Car with ID {} held for {} by userId: {}", carId, duration, customerId);
+
+        return requested.toCarHold();
+    }
+
+    /**
+     * @return true if the customer held the car and no longer does
+     */
+    public boolean release(Long carId, Long customerId)
+    {
+        Hold hold = holds.get(carId);
+
+        if(hold == null || !hold.isOf(customerId) || !holds.remove(carId, hold))
+            return false;
+
+        forget(carId, customerId);
+        fleetVersion.increment();
+
+        return true;
+    }
+
+    public boolean isHeldByOther(Long carId, Long customerId)
+    {
+        Hold hold = holds.get(carId);
+
+        return hold != null && hold.isActive() && !hold.isOf(customerId);
+    }
+
+    public boolean isHeld(Long carId)
+    {
+        Hold hold = holds.get(carId);
+
+        return hold != null && hold.isActive();
+    }
+
+    /**
+     * @return number of cars in the given status that are held, for the total of the available cars listing
+     */
+    public int countHeld(Status status)
+    {
+        int held = 0;
+
+        for(Hold hold : holds.values())
+        {
+            CarSummary car = fleetIndex.get(hold.carId);
+
+            if(hold.isActive() && car != null && car.getStatus() == status)
+                held++;
+        }
+
+        return held;
+    }
+
+    public int size()
+    {
+        return holds.size();
+    }
+
+    private void reapExpired()
+    {
+        try
+        {
+            while(!Thread.currentThread().isInterrupted())
+            {
+                Hold hold = expiries.take();
+
+                // a renewed or released hold is no longer in the map under this instance
+                if(holds.remove(hold.carId, hold))
+                {
+                    forget(hold.carId, hold.customerId);
+                    expiredHolds.incrementAndGet();
+                    fleetVersion.increment();
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isHeldBy(Long carId, Long customerId)
+    {
+        Hold hold = holds.get(carId);
+
+        return hold != null && hold.isActive() && hold.isOf(customerId);
+    }
+
+    // drops the car from the customer's cars unless the customer has held it again meanwhile
+    private void forget(Long carId, Long customerId)
+    {
+        carsByCustomer.computeIfPresent(customerId, (id, cars) -> {
+            if(!isHeldBy(carId, customerId))
+                cars.remove(carId);
+
+            return cars.isEmpty() ? null : cars;
+        });
+    }
+
+    private Duration resolveDuration(Integer seconds)
+    {
+        if(seconds == null)
+            return defaultDuration;
+
+        if(seconds <= 0)
+            throw new FieldMissingException("Hold duration must be positive");
+
+        Duration duration = Duration.ofSeconds(seconds);
+
+        return duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+    }
+
+    // the fleet index answers without a query once it is loaded
+    private CarSummary findCar(Long carId)
+    {
+        CarSummary car = fleetIndex.isReady() ? fleetIndex.get(carId)
+                : carRepository.findSummariesByIds(List.of(carId)).stream().findFirst().orElse(null);
+
+        if(car == null)
+            throw new NotFoundException("Car with ID " + carId + " not found");
+
+        return car;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("cars.holds.active", this, CarHolds::size).register(registry);
+        FunctionCounter.builder("cars.holds.granted", grantedHolds, AtomicLong::get).register(registry);
+        FunctionCounter.builder("cars.holds.expired", expiredHolds, AtomicLong::get).register(registry);
+    }
+
+    private static final class Hold implements Delayed
+    {
+        private final Long carId;
+
+        private final Long customerId;
+
+        private final long expiresAt;
+
+        private Hold(Long carId, Long customerId, long expiresAt)
+        {
+            this.carId = carId;
+            this.customerId = customerId;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isOf(Long customerId)
+        {
+            return this.customerId.equals(customerId);
+        }
+
+        boolean isActive()
+        {
+            return expiresAt - System.nanoTime() > 0;
+        }
+
+        Duration remaining()
+        {
+            return Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()));
+        }
+
+        CarHold toCarHold()
+        {
+            return new CarHold(carId, customerId, LocalDateTime.now().plus(remaining()));
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit)
+        {
+            return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other)
+        {
+            return Long.compare(expiresAt, ((Hold) other).expiresAt);
+        }
+    }
+}
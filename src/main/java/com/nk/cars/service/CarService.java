@@ -1,21 +1,44 @@
 package com.nk.cars.service;
 
+import com.nk.cars.dto.BulkRegistrationResult;
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSearchPage;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.dto.CarView;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.Car;
 import com.nk.cars.entity.Role;
 import com.nk.cars.entity.Status;
 import com.nk.cars.entity.User;
 import com.nk.cars.entity.*;
+import com.nk.cars.event.CarChangedEvent;
 import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
 import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.exception.NotFoundException;
 import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.LeaseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * CarService.java
@@ -33,9 +56,35 @@ public class CarService
 {
     private static final Logger log = LogManager.getLogger();
 
+    private static final int BULK_FLUSH_SIZE = 50; // matches hibernate.jdbc.batch_size
+
     @Autowired
     private CarRepository carRepository;
 
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @Autowired
+    private CarHolds carHolds;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cars.bulk.max-size:5000}")
+    private int maxBulkSize;
+
+    @Value("${cars.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${cars.page.max-size:500}")
+    private int maxPageSize;
+
     /**
      * Registers a car with the given owner ID.
      *
@@ -67,12 +116,102 @@ public class CarService
         validateCar(car);
         validateDuplicateEntry(car);
         log.info("Car with license plate: {} successfully validated", car.getLicensePlateNumber());
-        return carRepository.save(car);
+        return saveCar(car);
+    }
+
+    /**
+     * Registers a batch of cars for one owner. Every row is validated, duplicates are checked with a
+     * single query for the whole batch, and the valid cars are inserted in JDBC batches.
+     * Rejected rows do not stop the others.
+     *
+     * @param cars  the cars to be registered
+     * @param owner the owner registering the cars
+     * @return one result per car, in request order
+     */
+    @Transactional
+    public List<BulkRegistrationResult> registerCars(List<Car> cars, User owner)
+    {
+        log.info("Bulk registering {} cars for owner ID: {}", cars.size(), owner.getEmail());
+
+        if(owner.getRole().equals(Role.END_CUSTOMER))
+        {
+            throw new ActionNotAllowedException("Customer (Email ID: " + owner.getEmail() +") cannot register cars");
+        }
+
+        if(cars.size() > maxBulkSize)
+        {
+            throw new FieldMissingException("At most " + maxBulkSize + " cars can be registered at once, got " + cars.size());
+        }
+
+        Set<String> registeredPlates = carRepository.findRegisteredLicensePlates(cars.stream()
+                .map(Car::getLicensePlateNumber).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        Set<String> platesInBatch = new HashSet<>();
+
+        BulkRegistrationResult[] results = new BulkRegistrationResult[cars.size()];
+
+        List<Integer> acceptedRows = new ArrayList<>();
+
+        for(int index = 0; index < cars.size(); index++)
+        {
+            Car car = cars.get(index);
+
+            try
+            {
+                validateCar(car);
+            }
+            catch (FieldMissingException exception)
+            {
+                results[index] = BulkRegistrationResult.rejected(index, car.getLicensePlateNumber(), exception.getMessage());
+                continue;
+            }
+
+            String plate = car.getLicensePlateNumber();
+
+            if(registeredPlates.contains(plate) || !platesInBatch.add(plate))
+            {
+                results[index] = BulkRegistrationResult.rejected(index, plate, "Car with number '" + plate + "' already registered");
+                continue;
+            }
+
+            car.setId(null);
+            car.setStatus(Status.IDLE);
+            car.setOwner(owner);
+            acceptedRows.add(index);
+        }
+
+        // flushed and cleared per jdbc batch, so the persistence context never holds more than one batch
+        for(int from = 0; from < acceptedRows.size(); from += BULK_FLUSH_SIZE)
+        {
+            List<Integer> chunk = acceptedRows.subList(from, Math.min(from + BULK_FLUSH_SIZE, acceptedRows.size()));
+
+            List<Car> savedCars = carRepository.saveAll(chunk.stream().map(cars::get).toList());
+            entityManager.flush();
+            entityManager.clear();
+
+            for(int i = 0; i < chunk.size(); i++)
+            {
+                Car savedCar = savedCars.get(i);
+                results[chunk.get(i)] = BulkRegistrationResult.registered(chunk.get(i), savedCar.getLicensePlateNumber(), savedCar.getId());
+                eventPublisher.publishEvent(new CarChangedEvent(CarSummary.from(savedCar)));
+            }
+        }
+
+        log.info("Bulk registration for owner ID: {} registered {} of {} cars", owner.getEmail(), acceptedRows.size(), cars.size());
+
+        return List.of(results);
     }
 
+    /**
+     * Saves the car and publishes its new state, which keeps the {@link FleetIndex} current.
+     */
     public Car saveCar(Car car)
     {
-        return carRepository.save(car);
+        Car savedCar = carRepository.save(car);
+
+        eventPublisher.publishEvent(new CarChangedEvent(CarSummary.from(savedCar)));
+
+        return savedCar;
     }
 
     /**
@@ -82,7 +221,9 @@ public class CarService
      * @param status the new status of the car
      * @param user the owner of the car
      * @return the updated car
+     * @throws ConflictException if the car changed status concurrently
      */
+    @Transactional
     public Car updateCar(Long carId, String status, User user)
     {
         Status carStatus = Status.valueOf(status);
@@ -117,51 +258,197 @@ public class CarService
             return carFromDB;
         }
 
-        carFromDB.setStatus(carStatus);
+        // a lease may start in between, so the status read above is only applied if it still holds
+        return transitionStatus(carId, carFromDB.getStatus(), carStatus);
+    }
+
+    /**
+     * Moves a car from one status to another with a single conditional update, so of concurrent transitions
+     * out of the same status exactly one succeeds. Joins the caller's transaction, a caller that fails
+     * afterwards rolls the transition back as well.
+     *
+     * @param carId the ID of the car to move
+     * @param from  the status the car must be in
+     * @param to    the new status
+     * @return the car as stored after the transition
+     * @throws NotFoundException if the car does not exist
+     * @throws ConflictException if the car is not in <code>from</code>, typically because a concurrent request moved it first
+     */
+    @Transactional
+    public Car transitionStatus(Long carId, Status from, Status to)
+    {
+        if(carRepository.updateStatusIf(carId, from, to) == 0)
+        {
+            Car car = getCarById(carId);
+
+            log.info("Car ID: {} could not move from {} to {}, it is {}", carId, from, to, car.getStatus());
+
+            throw new ConflictException("Car with ID " + carId + " is no longer " + from + ". Current status : " + car.getStatus());
+        }
+
+        Car car = getCarById(carId);
+
+        // read fresh unless the caller loaded the car before the update, then only that car is refreshed
+        if(car.getStatus() != to)
+            entityManager.refresh(car);
 
-        return saveCar(carFromDB);
+        eventPublisher.publishEvent(new CarChangedEvent(CarSummary.from(car)));
+
+        return car;
+    }
+
+    /**
+     * {@link #transitionStatus(Long, Status, Status)} for many cars, with all the conditional updates sent as one
+     * batch. A car that is missing or not in <code>from</code> is left out instead of failing the others.
+     *
+     * @param carIds the IDs of the cars to move, without duplicates
+     * @param from   the status the cars must be in
+     * @param to     the new status
+     * @return the IDs of the cars that moved
+     */
+    @Transactional
+    public Set<Long> transitionStatuses(List<Long> carIds, Status from, Status to)
+    {
+        int[] updated = carRepository.updateStatusesIf(carIds, from, to);
+
+        Set<Long> moved = new HashSet<>();
+
+        for(int i = 0; i < updated.length; i++)
+        {
+            if(updated[i] > 0)
+                moved.add(carIds.get(i));
+        }
+
+        if(!moved.isEmpty())
+            carRepository.findSummariesByIds(moved).forEach(car -> eventPublisher.publishEvent(new CarChangedEvent(car)));
+
+        log.info("Moved {} of {} cars from {} to {}", moved.size(), carIds.size(), from, to);
+
+        return moved;
+    }
+
+    /**
+     * @return listing view of the given cars in one query, missing ids are left out
+     */
+    public List<CarSummary> getCarSummaries(Collection<Long> carIds)
+    {
+        return carIds.isEmpty() ? List.of() : carRepository.findSummariesByIds(carIds);
     }
 
     /**
      * Fetches all cars owned by a specific owner.
      *
-     * @param user the owner
+     * @param principal the authenticated owner
      * @return list of cars owned by the user
      */
-    public List<Car> getAllCarsByOwner(User user)
+    public List<CarView> getAllCarsByOwner(UserPrincipal principal)
     {
-        log.info("Fetching all cars for emailID: {}", user.getEmail());
+        log.info("Fetching all cars for emailID: {}", principal.getEmail());
 
-        if(user.getRole().equals(Role.END_CUSTOMER))
+        if(principal.getRole().equals(Role.END_CUSTOMER))
         {
-            throw new ActionNotAllowedException("Access denied: Customer (ID: " + user.getEmail() + ") cannot fetch owned cars");
+            throw new ActionNotAllowedException("Access denied: Customer (ID: " + principal.getEmail() + ") cannot fetch owned cars");
         }
 
-        return carRepository.findAllByOwner(user);
+        return withLeaseIds(carRepository.findSummariesByOwnerId(principal.getUserId()));
     }
 
     /**
-     * Fetches all cars available for lease.
+     * Fetches one page of cars available for lease. Cars a customer holds are left out once the
+     * {@link FleetIndex} is loaded, before that the database page includes them.
      *
-     * @return list of cars in IDLE status
+     * @return page of cars in IDLE status, with their lease ids
      */
-    public List<Car> getAvailableCars()
+    public CursorPage<CarView> getAvailableCars(String cursor, Integer size, boolean includeTotal)
     {
-        log.info("Fetching all available cars for lease");
+        log.info("Fetching available cars for lease");
+
+        if(fleetIndex.isReady())
+        {
+            int pageSize = resolvePageSize(size);
 
-        return getAllCars().stream().filter(car -> car.getStatus() == Status.IDLE).toList();
+            List<CarSummary> fetched = fleetIndex.page(Status.IDLE, CursorPage.decodeCursor(cursor), pageSize + 1, car -> !carHolds.isHeld(car.getId()));
+
+            return CursorPage.of(fetched, pageSize, CarSummary::getId,
+                    includeTotal ? (long) Math.max(0, fleetIndex.count(Status.IDLE) - carHolds.countHeld(Status.IDLE)) : null)
+                    .mapItems(this::withLeaseIds);
+        }
+
+        return getCarsByStatus(Status.IDLE, cursor, size, includeTotal);
     }
 
     /**
-     * Fetches all cars currently on lease.
+     * Fetches one page of cars currently on lease.
      *
-     * @return list of cars in ON_LEASE status
+     * @return page of cars in ON_LEASE status, with their lease ids
      */
-    public List<Car> getLeasedCars()
+    public CursorPage<CarView> getLeasedCars(String cursor, Integer size, boolean includeTotal)
     {
-        log.info("Fetching all leased cars");
+        log.info("Fetching leased cars");
 
-        return getAllCars().stream().filter(car -> car.getStatus() == Status.ON_LEASE).toList();
+        return getCarsByStatus(Status.ON_LEASE, cursor, size, includeTotal);
+    }
+
+    /**
+     * Served from the {@link FleetIndex}, the database is only queried until the index is loaded.
+     * The lease ids are not indexed, they are loaded for the whole page in one query.
+     */
+    private CursorPage<CarView> getCarsByStatus(Status status, String cursor, Integer size, boolean includeTotal)
+    {
+        int pageSize = resolvePageSize(size);
+
+        long afterId = CursorPage.decodeCursor(cursor);
+
+        if(fleetIndex.isReady())
+        {
+            return CursorPage.of(fleetIndex.page(status, afterId, pageSize + 1), pageSize, CarSummary::getId,
+                    includeTotal ? (long) fleetIndex.count(status) : null).mapItems(this::withLeaseIds);
+        }
+
+        List<CarSummary> fetched = carRepository.findSummaryPageByStatus(status, afterId, Limit.of(pageSize + 1));
+
+        return CursorPage.of(fetched, pageSize, CarSummary::getId, includeTotal ? carRepository.countByStatus(status) : null)
+                .mapItems(this::withLeaseIds);
+    }
+
+    /**
+     * Searches the fleet, served from the {@link FleetIndex} once it is loaded and from the database before that.
+     *
+     * @param criteria      filters, all optional
+     * @param includeFacets whether to count the matching cars per make and per year, which also fills in the total
+     * @return one page of matching cars ordered by id
+     */
+    public CarSearchPage searchCars(CarSearchCriteria criteria, String cursor, Integer size, boolean includeFacets)
+    {
+        log.info("Searching cars with {}", criteria);
+
+        int pageSize = resolvePageSize(size);
+
+        long afterId = CursorPage.decodeCursor(cursor);
+
+        boolean fromIndex = fleetIndex.isReady();
+
+        List<CarSummary> fetched = fromIndex ? fleetIndex.search(criteria, afterId, pageSize + 1)
+                : carRepository.search(criteria, afterId, pageSize + 1);
+
+        CarFacets facets = !includeFacets ? null : fromIndex ? fleetIndex.facets(criteria) : carRepository.facets(criteria);
+
+        return new CarSearchPage(CursorPage.of(fetched, pageSize, CarSummary::getId, facets != null ? facets.getTotal() : null), facets);
+    }
+
+    /**
+     * @param size requested page size, null for the configured default
+     * @return the size capped to cars.page.max-size
+     */
+    private int resolvePageSize(Integer size)
+    {
+        if(size == null)
+            return defaultPageSize;
+
+        if(size <= 0)
+            throw new FieldMissingException("Page size must be positive");
+
+        return Math.min(size, maxPageSize);
     }
 
     /**
@@ -175,7 +462,7 @@ public class CarService
         if(car.getModel() == null)
             throw new FieldMissingException("Field 'model' is required!");
 
-        if(car.getYear() == 0)
+        if(car.getYear() == null || car.getYear() == 0)
             throw new FieldMissingException("Field 'year' is required!");
 
         if(car.getLicensePlateNumber() == null)
@@ -206,10 +493,31 @@ public class CarService
     }
 
     /**
-     * Fetched all cars from DB
-    * */
-    public List<Car> getAllCars()
+     * Fetches one page of all cars, ordered by id.
+     */
+    public CursorPage<CarView> getAllCars(String cursor, Integer size, boolean includeTotal)
+    {
+        int pageSize = resolvePageSize(size);
+
+        List<CarSummary> fetched = carRepository.findSummaryPage(CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1));
+
+        return CursorPage.of(fetched, pageSize, CarSummary::getId, includeTotal ? carRepository.count() : null)
+                .mapItems(this::withLeaseIds);
+    }
+
+    /**
+     * Adds the lease ids to the given cars with a single query for all of them.
+     */
+    private List<CarView> withLeaseIds(List<CarSummary> cars)
     {
-        return carRepository.findAll();
+        if(cars.isEmpty())
+            return List.of();
+
+        Map<Long, List<Long>> leaseIdsByCar = leaseRepository.findLeaseIdsByCarIds(cars.stream().map(CarSummary::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(LeaseRepository.CarLeaseId::getCarId,
+                        Collectors.mapping(LeaseRepository.CarLeaseId::getLeaseId, Collectors.toList())));
+
+        return cars.stream().map(car -> CarView.of(car, leaseIdsByCar.getOrDefault(car.getId(), List.of()))).toList();
     }
 }
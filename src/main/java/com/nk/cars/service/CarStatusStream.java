@@ -0,0 +1,184 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.event.CarStatusChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CarStatusStream.java
+ *
+ * <p>
+ * Pushes {@link CarStatusChangedEvent}s to Server-Sent Events subscribers, optionally only for one make or model.
+ * Publishing never waits for a client: each subscriber has a bounded buffer drained by its own virtual
+ * thread, and a subscriber whose buffer is full is disconnected, the client reconnects and reloads the
+ * listing. An idle subscriber costs a parked virtual thread and its buffer. Heartbeats keep proxies from
+ * closing idle streams and find clients that went away without closing theirs.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class CarStatusStream implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Value("${cars.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${cars.events.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    @Value("${cars.events.timeout:30m}")
+    private Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+
+    /**
+     * @param make  only cars of this make, optional
+     * @param model only cars of this model, optional
+     * @return emitter to hand back from the controller, it completes after cars.events.timeout and the client reconnects
+     */
+    public SseEmitter subscribe(String make, String model)
+    {
+        return register(new SseEmitter(timeout.toMillis()), make, model);
+    }
+
+    SseEmitter register(SseEmitter emitter, String make, String model)
+    {
+        Subscriber subscriber = new Subscriber(emitter, blankToNull(make), blankToNull(model), new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+
+        subscribers.add(subscriber);
+        subscriber.drainer = Thread.ofVirtual().name("car-status-stream").start(() -> drain(subscriber));
+
+        logger.debug("Car status stream subscribed, make: {}, model: {}, subscribers: {}", make, model, subscribers.size());
+
+        return emitter;
+    }
+
+    @EventListener
+    public void onCarStatusChanged(CarStatusChangedEvent event)
+    {
+        for(Subscriber subscriber : subscribers)
+        {
+            if(subscriber.accepts(event.getCar()) && !subscriber.buffer.offer(event))
+            {
+                logger.warn("Car status stream subscriber fell {} events behind, disconnecting", bufferSize);
+                slowConsumerDisconnects.incrementAndGet();
+                close(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount()
+    {
+        return subscribers.size();
+    }
+
+    private void drain(Subscriber subscriber)
+    {
+        try
+        {
+            subscriber.emitter.send(SseEmitter.event().comment("subscribed")); // commits the response headers right away
+
+            while(!subscriber.closed)
+            {
+                CarStatusChangedEvent event = subscriber.buffer.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+                if(event == null)
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                else
+                    subscriber.emitter.send(SseEmitter.event().name("car-status").data(event, MediaType.APPLICATION_JSON));
+            }
+
+            subscriber.emitter.complete();
+        }
+        catch (InterruptedException e) // closed while waiting or writing
+        {
+            subscriber.emitter.complete();
+        }
+        catch (IOException | IllegalStateException e) // the client went away, the container completes the emitter
+        {
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber)
+    {
+        if(!subscribers.remove(subscriber))
+            return;
+
+        subscriber.closed = true;
+
+        Thread drainer = subscriber.drainer;
+
+        if(drainer != null && drainer != Thread.currentThread())
+            drainer.interrupt();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("cars.events.subscribers", this, CarStatusStream::subscriberCount).register(registry);
+        FunctionCounter.builder("cars.events.slow.disconnects", slowConsumerDisconnects, AtomicLong::get).register(registry);
+    }
+
+    private static String blankToNull(String value)
+    {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private static class Subscriber
+    {
+        private final SseEmitter emitter;
+
+        private final String make;
+
+        private final String model;
+
+        private final BlockingQueue<CarStatusChangedEvent> buffer;
+
+        private volatile Thread drainer;
+
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String make, String model, BlockingQueue<CarStatusChangedEvent> buffer)
+        {
+            this.emitter = emitter;
+            this.make = make;
+            this.model = model;
+            this.buffer = buffer;
+        }
+
+        boolean accepts(CarSummary car)
+        {
+            return (make == null || make.equals(car.getMake())) && (model == null || model.equals(car.getModel()));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.nk.cars.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.LeaseRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * ExportService.java
+ *
+ * <p>
+ * Writes the fleet and the lease history as NDJSON, one JSON object per line, for the data warehouse.
+ * Rows are read as listing projections, which never enter the persistence context, in keyset chunks of
+ * {@value #CHUNK_SIZE} ordered by id, and every chunk is flushed to the client before the next one is read.
+ * The embedded HSQLDB materializes a whole result set whatever the fetch size, so one query over all rows
+ * would hold them all in memory; a chunk at a time memory stays flat whatever the row count, and no
+ * connection is held while the client reads. Rows changed during the export are written in either state.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Service
+public class ExportService
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public long exportFleet(OutputStream outputStream) throws IOException
+    {
+        SequenceWriter writer = ndjsonWriter(outputStream);
+
+        long rows = writeChunks(writer, afterId -> carRepository.findSummaryPage(afterId, Limit.of(CHUNK_SIZE)), CarSummary::getId);
+
+        finish(rows, outputStream);
+        logger.info("Exported {} cars", rows);
+        return rows;
+    }
+
+    /**
+     * Writes the lease table, then the archive. A lease archived while the export runs may be written twice,
+     * but is never skipped.
+     */
+    public long exportLeaseHistory(OutputStream outputStream) throws IOException
+    {
+        SequenceWriter writer = ndjsonWriter(outputStream);
+
+        long rows = writeChunks(writer, afterId -> leaseRepository.findSummaryPage(afterId, Limit.of(CHUNK_SIZE)), LeaseSummary::getId)
+                + writeChunks(writer, afterId -> leaseRepository.findArchivedSummaryPage(afterId, Limit.of(CHUNK_SIZE)), LeaseSummary::getId);
+
+        finish(rows, outputStream);
+        logger.info("Exported {} leases", rows);
+        return rows;
+    }
+
+    private SequenceWriter ndjsonWriter(OutputStream outputStream) throws IOException
+    {
+        return objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream);
+    }
+
+    /**
+     * @param nextChunk reads up to {@value #CHUNK_SIZE} rows with an id above the given one, ordered by id
+     * @return number of rows written
+     */
+    private <T> long writeChunks(SequenceWriter writer, LongFunction<List<T>> nextChunk, Function<T, Long> idOf) throws IOException
+    {
+        long count = 0;
+        long afterId = 0;
+
+        List<T> chunk;
+
+        do
+        {
+            chunk = nextChunk.apply(afterId);
+
+            for(T row : chunk)
+                writer.write(row);
+
+            writer.flush();
+
+            count += chunk.size();
+
+            if(!chunk.isEmpty())
+                afterId = idOf.apply(chunk.get(chunk.size() - 1));
+        }
+        while(chunk.size() == CHUNK_SIZE);
+
+        return count;
+    }
+
+    private void finish(long rows, OutputStream outputStream) throws IOException
+    {
+        if(rows > 0)
+            outputStream.write('\n'); // the separator only goes between rows
+
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,405 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Status;
+import com.nk.cars.event.CarChangedEvent;
+import com.nk.cars.event.CarStatusChangedEvent;
+import com.nk.cars.repo.CarRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * FleetIndex.java
+ *
+ * <p>
+ * In-memory index of the fleet by {@link Status} and by make, so the availability listings and the car
+ * search are served without a database round trip. Every shard keeps its cars ordered by id, which is
+ * what keyset pages need. Cars are also counted per status, make, model and year as they change,
+ * so search facets are summed up from those counts instead of scanning the fleet.
+ * The index is loaded from the database once the application is ready and kept current from
+ * {@link CarChangedEvent}s, applied only after the change committed. Those may arrive out of order, a change
+ * older than the version of the car already indexed is ignored. A periodic check compares it
+ * with the database and rebuilds it if they drifted apart. Every change to the index bumps the {@link FleetVersion},
+ * and a change of status is passed on as a {@link CarStatusChangedEvent}.
+ * Reads never lock. Writers are serialized, and a rebuild swaps in a complete new index at once.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class FleetIndex implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private CarRepository carRepository;
+
+    // every change bumps it, so the index cannot be built without one
+    private final FleetVersion fleetVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Object writeLock = new Object();
+
+    private volatile Shards shards = new Shards();
+
+    private volatile boolean ready;
+
+    // ids of the cars applied while verifyConsistency reads the database, null when no check is running
+    private Set<Long> appliedWhileLoading;
+
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    private final AtomicLong driftedCars = new AtomicLong();
+
+    public FleetIndex(FleetVersion fleetVersion)
+    {
+        this.fleetVersion = fleetVersion;
+    }
+
+    /**
+     * @return false until the first load from the database finished
+     */
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    /**
+     * @return up to <code>limit</code> cars in the given status with an id above <code>afterId</code>, ordered by id
+     */
+    public List<CarSummary> page(Status status, long afterId, int limit)
+    {
+        return page(status, afterId, limit, car -> true);
+    }
+
+    /**
+     * @return up to <code>limit</code> cars in the given status accepted by the filter with an id above <code>afterId</code>, ordered by id
+     */
+    public List<CarSummary> page(Status status, long afterId, int limit, Predicate<CarSummary> filter)
+    {
+        return shards.byStatus.get(status).tailMap(afterId, false).values().stream().filter(filter).limit(limit).toList();
+    }
+
+    /**
+     * Scans the narrowest shard for the criteria (the make, else the status, else the whole fleet) in id order
+     * and stops once the page is full, or on a first page once every matching car was found.
+     *
+     * @return up to <code>limit</code> cars matching the criteria with an id above <code>afterId</code>, ordered by id
+     */
+    public List<CarSummary> search(CarSearchCriteria criteria, long afterId, int limit)
+    {
+        Shards current = shards;
+
+        long matching = current.facets(criteria).getTotal();
+
+        if(matching == 0)
+            return List.of();
+
+        return current.candidates(criteria).tailMap(afterId, false).values().stream()
+                .filter(criteria::matches)
+                .limit(afterId == 0 ? Math.min(limit, matching) : limit)
+                .toList();
+    }
+
+    /**
+     * Summed up from the running counts, so this never scans the fleet.
+     *
+     * @return counts per make and per year over all cars matching the criteria
+     */
+    public CarFacets facets(CarSearchCriteria criteria)
+    {
+        return shards.facets(criteria);
+    }
+
+    public int count(Status status)
+    {
+        return shards.counts.get(status).get();
+    }
+
+    public int size()
+    {
+        return shards.byId.size();
+    }
+
+    public CarSummary get(Long carId)
+    {
+        return shards.byId.get(carId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event)
+    {
+        CarSummary car = event.getCar();
+
+        CarSummary previous = apply(car);
+
+        if(previous != null && previous.isNewerThan(car))
+            return;
+
+        // published synchronously, a transactional listener registered while this one runs after commit would never fire
+        if(previous == null || previous.getStatus() != car.getStatus())
+            eventPublisher.publishEvent(new CarStatusChangedEvent(car, previous != null ? previous.getStatus() : null));
+    }
+
+    /**
+     * Indexes the car, unless the index already holds a newer version of it.
+     *
+     * @return the car as the index knew it before, null if it was not indexed yet; the indexed car if that is newer
+     *         and the given one was ignored
+     */
+    public CarSummary apply(CarSummary car)
+    {
+        CarSummary previous;
+
+        synchronized (writeLock)
+        {
+            previous = shards.byId.get(car.getId());
+
+            if(previous != null && previous.isNewerThan(car))
+                return previous;
+
+            shards.put(car);
+
+            if(appliedWhileLoading != null)
+                appliedWhileLoading.add(car.getId());
+        }
+
+        fleetVersion.increment();
+
+        return previous;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild()
+    {
+        synchronized (writeLock) // loaded under the lock, so no change can be applied to the old index and lost
+        {
+            shards = load();
+            ready = true;
+            rebuilds.incrementAndGet();
+        }
+
+        fleetVersion.increment();
+
+        logger.info("Fleet index built with {} cars", size());
+    }
+
+    /**
+     * Compares the index with the database and rebuilds it when they differ. The database is read without
+     * holding the write lock, so changes keep being applied meanwhile; a car indexed at a newer version than
+     * it was read at, or added while reading, changed after the read and is kept as indexed.
+     *
+     * @return number of cars that were missing, stale or unknown in the index
+     */
+    @Scheduled(initialDelayString = "${fleet.index.consistency-check-interval:5m}", fixedDelayString = "${fleet.index.consistency-check-interval:5m}")
+    public int verifyConsistency()
+    {
+        Set<Long> appliedDuringLoad = ConcurrentHashMap.newKeySet();
+
+        synchronized (writeLock)
+        {
+            appliedWhileLoading = appliedDuringLoad;
+        }
+
+        Shards fromDatabase;
+
+        try
+        {
+            fromDatabase = load();
+        }
+        finally
+        {
+            synchronized (writeLock)
+            {
+                appliedWhileLoading = null;
+            }
+        }
+
+        synchronized (writeLock)
+        {
+            int drift = 0;
+
+            for(CarSummary car : shards.byId.values())
+            {
+                CarSummary loaded = fromDatabase.byId.get(car.getId());
+
+                if(loaded == null ? appliedDuringLoad.contains(car.getId()) : car.isNewerThan(loaded))
+                    fromDatabase.put(car);
+                else if(loaded == null)
+                    drift++;
+            }
+
+            for(CarSummary car : fromDatabase.byId.values())
+            {
+                if(!Objects.equals(car, shards.byId.get(car.getId())))
+                    drift++;
+            }
+
+            if(drift > 0)
+            {
+                logger.warn("Fleet index drifted from the database by {} cars, rebuilding", drift);
+                driftedCars.addAndGet(drift);
+                rebuilds.incrementAndGet();
+                shards = fromDatabase;
+                fleetVersion.increment();
+            }
+
+            ready = true;
+            return drift;
+        }
+    }
+
+    private Shards load()
+    {
+        Shards loaded = new Shards();
+        carRepository.findAllSummaries().forEach(loaded::put);
+        return loaded;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        for(Status status : Status.values())
+        {
+            Gauge.builder("fleet.index.size", this, index -> index.count(status))
+                    .tag("status", status.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        FunctionCounter.builder("fleet.index.rebuilds", rebuilds, AtomicLong::get).register(registry);
+        FunctionCounter.builder("fleet.index.drift", driftedCars, AtomicLong::get).register(registry);
+    }
+
+    // One complete generation of the index, only mutated while holding the write lock
+    private static class Shards
+    {
+        private final ConcurrentNavigableMap<Long, CarSummary> byId = new ConcurrentSkipListMap<>();
+
+        private final Map<Status, ConcurrentNavigableMap<Long, CarSummary>> byStatus = new EnumMap<>(Status.class);
+
+        private final Map<String, ConcurrentNavigableMap<Long, CarSummary>> byMake = new ConcurrentHashMap<>();
+
+        private final Map<Status, AtomicInteger> counts = new EnumMap<>(Status.class);
+
+        private final Map<Status, Map<FacetKey, AtomicInteger>> facetCounts = new EnumMap<>(Status.class);
+
+        Shards()
+        {
+            for(Status status : Status.values())
+            {
+                byStatus.put(status, new ConcurrentSkipListMap<>());
+                counts.put(status, new AtomicInteger());
+                facetCounts.put(status, new ConcurrentHashMap<>());
+            }
+        }
+
+        CarSummary put(CarSummary car)
+        {
+            CarSummary previous = byId.put(car.getId(), car);
+
+            if(previous != null)
+            {
+                if(previous.getMake() != null)
+                    byMake.get(previous.getMake()).remove(car.getId());
+
+                if(previous.getStatus() != null)
+                {
+                    byStatus.get(previous.getStatus()).remove(car.getId());
+                    counts.get(previous.getStatus()).decrementAndGet();
+                    count(previous, -1);
+                }
+            }
+
+            if(car.getMake() != null)
+                byMake.computeIfAbsent(car.getMake(), make -> new ConcurrentSkipListMap<>()).put(car.getId(), car);
+
+            if(car.getStatus() != null)
+            {
+                byStatus.get(car.getStatus()).put(car.getId(), car);
+                counts.get(car.getStatus()).incrementAndGet();
+                count(car, 1);
+            }
+
+            return previous;
+        }
+
+        ConcurrentNavigableMap<Long, CarSummary> candidates(CarSearchCriteria criteria)
+        {
+            if(criteria.getMake() != null)
+                return byMake.getOrDefault(criteria.getMake(), new ConcurrentSkipListMap<>());
+
+            if(criteria.getStatus() != null)
+                return byStatus.get(criteria.getStatus());
+
+            return byId;
+        }
+
+        CarFacets facets(CarSearchCriteria criteria)
+        {
+            Map<String, Long> makes = new HashMap<>();
+            Map<Integer, Long> years = new HashMap<>();
+            long total = 0;
+
+            for(Status status : criteria.getStatus() != null ? List.of(criteria.getStatus()) : List.of(Status.values()))
+            {
+                for(Map.Entry<FacetKey, AtomicInteger> cell : facetCounts.get(status).entrySet())
+                {
+                    FacetKey key = cell.getKey();
+                    long count = cell.getValue().get();
+
+                    if(count == 0 || !criteria.matchesAttributes(key.make(), key.model(), key.year()))
+                        continue;
+
+                    total += count;
+
+                    if(key.make() != null)
+                        makes.merge(key.make(), count, Long::sum);
+
+                    if(key.year() != null)
+                        years.merge(key.year(), count, Long::sum);
+                }
+            }
+
+            return CarFacets.of(makes, years, total);
+        }
+
+        private void count(CarSummary car, int delta)
+        {
+            facetCounts.get(car.getStatus()).computeIfAbsent(new FacetKey(car.getMake(), car.getModel(), car.getYear()), key -> new AtomicInteger())
+                    .addAndGet(delta);
+        }
+    }
+
+    // One cell of the facet counts, a fleet has a few thousand of these at most
+    private record FacetKey(String make, String model, Integer year) {}
+}
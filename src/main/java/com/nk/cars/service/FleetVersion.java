@@ -0,0 +1,55 @@
+package com.nk.cars.service;
+
+import com.nk.cars.event.LeaseChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FleetVersion.java
+ *
+ * <p>
+ * Version of everything the car listings show, bumped once a change to a car or a lease committed.
+ * Car changes are counted by the {@link FleetIndex} after it applied them, so a listing served from
+ * the index never carries a version newer than its content. The version starts over on every start,
+ * the epoch in the ETag keeps tags of an earlier run from matching.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class FleetVersion
+{
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current()
+    {
+        return version.get();
+    }
+
+    public void increment()
+    {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaseChanged(LeaseChangedEvent event)
+    {
+        increment();
+    }
+
+    /**
+     * Read before the listing itself, so a change racing with the request can only make the tag older, never newer.
+     *
+     * @return strong ETag of the current version
+     */
+    public String eTag()
+    {
+        return "\"" + Long.toString(epoch, 36) + "-" + current() + "\"";
+    }
+}
@@ -0,0 +1,109 @@
+package com.nk.cars.service;
+
+import com.nk.cars.repo.ArchivedLeaseRepository;
+import com.nk.cars.repo.LeaseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LeaseArchiver.java
+ *
+ * <p>
+ * Moves leases that ended more than lease.archive.ended-before ago from the lease table to the archive,
+ * so the table that starting and ending leases work on only grows with the leases that are still
+ * relevant. Each batch is copied and deleted in its own short transaction, and a run continues until
+ * nothing is left to move. History reads go over both tables and do not notice the move.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class LeaseArchiver implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private ArchivedLeaseRepository archivedLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${lease.archive.ended-before:90d}")
+    private Duration endedBefore;
+
+    @Value("${lease.archive.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicLong archivedLeases = new AtomicLong();
+
+    /**
+     * @return number of leases moved to the archive
+     */
+    @Scheduled(initialDelayString = "${lease.archive.interval:1h}", fixedDelayString = "${lease.archive.interval:1h}")
+    public int archive()
+    {
+        LocalDateTime cutoff = LocalDateTime.now().minus(endedBefore);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int archived = 0;
+
+        int moved;
+
+        do
+        {
+            moved = transaction.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        }
+        while(moved == batchSize);
+
+        if(archived > 0)
+            logger.info("Archived {} leases that ended before {}", archived, cutoff);
+
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff)
+    {
+        List<Long> leaseIds = leaseRepository.findArchivableIds(cutoff, Limit.of(batchSize));
+
+        if(leaseIds.isEmpty())
+            return 0;
+
+        int copied = archivedLeaseRepository.copyFromLeases(leaseIds);
+        int deleted = leaseRepository.deleteByIds(leaseIds);
+
+        if(copied != deleted)
+            throw new IllegalStateException("Copied " + copied + " leases to the archive but deleted " + deleted);
+
+        archivedLeases.addAndGet(deleted);
+
+        return deleted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("leases.archived", archivedLeases, AtomicLong::get).register(registry);
+    }
+}
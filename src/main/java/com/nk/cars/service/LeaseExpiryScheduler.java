@@ -0,0 +1,248 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.LeaseBatchResult;
+import com.nk.cars.event.LeaseEndPlannedEvent;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.utils.TimingWheel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * LeaseExpiryScheduler.java
+ *
+ * <p>
+ * Ends leases once their planned end date has passed. Planned ends are kept in an in-memory
+ * {@link TimingWheel}, filled from the lease table on startup and by every lease started with a planned
+ * end after that, so the table is never polled. Every lease.expiry.tick the due leases are ended in
+ * batches through {@link LeaseService#expireLeases}, which frees their cars like any other lease end.
+ * A lease ended by hand before it was due is skipped when its turn comes.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class LeaseExpiryScheduler implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${lease.expiry.tick:1s}")
+    private Duration tick;
+
+    @Value("${lease.expiry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${lease.expiry.retry-delay:1m}")
+    private Duration retryDelay;
+
+    // the wheel runs on this clock, tests replace it to move time on without waiting
+    private volatile Clock clock = Clock.systemDefaultZone();
+
+    private final Object wheelLock = new Object();
+
+    // only read or replaced while holding the wheel lock
+    private TimingWheel<Long> wheel;
+
+    // planned ends that arrive while a rebuild reads the lease table, null when no rebuild runs
+    private Map<Long, Long> scheduledDuringRebuild;
+
+    private final AtomicLong expiredLeases = new AtomicLong();
+
+    /**
+     * Schedules every active lease with a planned end on a new wheel, before the application serves requests.
+     * The wheel is filled without holding the lock and swapped in complete. Planned ends that arrive meanwhile
+     * are added to it at the swap, so none is lost with the old wheel.
+     *
+     * @return number of leases scheduled
+     */
+    @PostConstruct
+    public int rebuild()
+    {
+        TimingWheel<Long> rebuilt = new TimingWheel<>(tick, clock.millis());
+
+        synchronized (wheelLock)
+        {
+            scheduledDuringRebuild = new HashMap<>();
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        try
+        {
+            transaction.executeWithoutResult(status -> {
+                try (Stream<LeaseRepository.PlannedEnd> plannedEnds = leaseRepository.streamPlannedEnds())
+                {
+                    plannedEnds.forEach(plannedEnd -> rebuilt.schedule(plannedEnd.getLeaseId(), toEpochMillis(plannedEnd.getPlannedEndDate())));
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            synchronized (wheelLock)
+            {
+                scheduledDuringRebuild = null; // the current wheel, if any, stays in use
+            }
+            throw e;
+        }
+
+        int scheduled;
+
+        synchronized (wheelLock)
+        {
+            scheduledDuringRebuild.forEach(rebuilt::schedule);
+            scheduledDuringRebuild = null;
+            wheel = rebuilt;
+            scheduled = rebuilt.size();
+        }
+
+        logger.info("Scheduled {} planned lease ends", scheduled);
+
+        return scheduled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaseEndPlanned(LeaseEndPlannedEvent event)
+    {
+        schedule(event.getLeaseId(), event.getPlannedEndDate());
+    }
+
+    /**
+     * Ends the leases due by now. Passes run one at a time, so a pass started by hand returns only
+     * once a scheduled pass running meanwhile has ended the leases it took.
+     *
+     * @return number of leases ended
+     */
+    @Scheduled(fixedDelayString = "${lease.expiry.tick:1s}")
+    public synchronized int expireDue()
+    {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> due;
+
+        synchronized (wheelLock)
+        {
+            due = wheel.advance(toEpochMillis(now));
+        }
+
+        int expired = 0;
+
+        for(int from = 0; from < due.size(); from += batchSize)
+            expired += expire(due.subList(from, Math.min(from + batchSize, due.size())), now);
+
+        if(expired > 0)
+            logger.info("Ended {} leases past their planned end", expired);
+
+        return expired;
+    }
+
+    public int pendingCount()
+    {
+        synchronized (wheelLock)
+        {
+            return wheel.size();
+        }
+    }
+
+    private void schedule(Long leaseId, LocalDateTime plannedEndDate)
+    {
+        schedule(leaseId, toEpochMillis(plannedEndDate));
+    }
+
+    private void schedule(Long leaseId, long deadlineMillis)
+    {
+        synchronized (wheelLock)
+        {
+            wheel.schedule(leaseId, deadlineMillis);
+
+            if(scheduledDuringRebuild != null)
+                scheduledDuringRebuild.put(leaseId, deadlineMillis);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime)
+    {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // one failing lease must not hold up the others, so a failed batch is retried lease by lease
+    private int expire(List<Long> leaseIds, LocalDateTime now)
+    {
+        try
+        {
+            return countEnded(leaseService.expireLeases(leaseIds, now));
+        }
+        catch (RuntimeException e)
+        {
+            if(leaseIds.size() == 1)
+            {
+                retryLater(leaseIds.get(0), e);
+                return 0;
+            }
+
+            logger.warn("Expiring {} leases together failed, expiring them one by one: {}", leaseIds.size(), e.getMessage());
+
+            return leaseIds.stream().mapToInt(leaseId -> expire(List.of(leaseId), now)).sum();
+        }
+    }
+
+    private void retryLater(Long leaseId, RuntimeException e)
+    {
+        if(e instanceof ConflictException)
+        {
+            logger.error("Lease with ID {} could not be expired and is left active: {}", leaseId, e.getMessage());
+            return;
+        }
+
+        logger.warn("Expiring lease with ID {} failed, retrying in {}: {}", leaseId, retryDelay, e.getMessage());
+        schedule(leaseId, clock.millis() + retryDelay.toMillis());
+    }
+
+    private int countEnded(List<LeaseBatchResult> results)
+    {
+        int ended = (int) results.stream().filter(result -> result.getOutcome() == LeaseBatchResult.Outcome.ENDED).count();
+
+        expiredLeases.addAndGet(ended);
+
+        return ended;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("leases.expiry.pending", this, LeaseExpiryScheduler::pendingCount).register(registry);
+        FunctionCounter.builder("leases.expired", expiredLeases, AtomicLong::get).register(registry);
+    }
+}
@@ -1,18 +1,46 @@
 package com.nk.cars.service;
 
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.LeaseBatchResult;
+import com.nk.cars.dto.LeaseCursor;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.*;
 import com.nk.cars.entity.*;
+import com.nk.cars.event.LeaseChangedEvent;
+import com.nk.cars.event.LeaseEndPlannedEvent;
 import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.exception.NotFoundException;
+import com.nk.cars.repo.ArchivedLeaseRepository;
 import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
 import com.nk.cars.utils.CommonUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * LeaseService.java
@@ -29,27 +57,80 @@ public class LeaseService
 {
     private static final Logger logger = LogManager.getLogger();
 
+    static final int MAX_ACTIVE_LEASES = 2;
+
     @Autowired
     private LeaseRepository leaseRepository;
 
+    @Autowired
+    private ArchivedLeaseRepository archivedLeaseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private CarService carService;
 
+    @Autowired
+    private CarHolds carHolds;
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${lease.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${lease.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${lease.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${lease.batch.all-or-nothing:false}")
+    private boolean allOrNothingByDefault;
+
 
     /**
-     * Starts a lease for the specified car and user.
+     * Starts a lease for the specified car and user, without a planned end.
      *
      * @param carId  the ID of the car to lease
      * @param user the user starting the lease
      * @return the created Lease object
+     * @throws ConflictException if the car is not available, or another request leased it first
      */
+    @Transactional
     public Lease startLease(Long carId, User user)
+    {
+        return startLease(carId, user, null);
+    }
+
+    /**
+     * Starts a lease for the specified car and user.
+     *
+     * @param carId          the ID of the car to lease
+     * @param user           the user starting the lease
+     * @param plannedEndDate when the lease ends by itself, optional, must be in the future
+     * @return the created Lease object
+     * @throws ConflictException if the car is not available, or another request leased it first
+     */
+    @Transactional
+    public Lease startLease(Long carId, User user, LocalDateTime plannedEndDate)
     {
         logger.info("Starting lease for carId: {} by userId: {}", carId, user);
 
+        LocalDateTime startDate = LocalDateTime.now();
+
+        if(plannedEndDate != null && !plannedEndDate.isAfter(startDate))
+        {
+            throw new FieldMissingException("Planned end date must be in the future");
+        }
+
         Car car = carService.getCarById(carId);
 
         String email = user.getEmail();
@@ -59,32 +140,44 @@ public class LeaseService
             throw new ActionNotAllowedException("User with ID " + email + " is a car owner and cannot start a lease");
         }
 
-        List<Lease> leases = user.getLeases();
+        // Validate car availability, fails fast without attempting the update
+        if(!car.getStatus().equals(Status.IDLE))
+        {
+            throw new ConflictException("Car with ID " + carId +" is not available for leasing. Current status : " +car.getStatus());
+        }
 
-        // Validate user lease limits
-        if(validateActiveLease(leases))
+        // Validate that no other customer holds the car at checkout
+        if(carHolds.isHeldByOther(carId, user.getUserId()))
         {
-            throw new ActionNotAllowedException("User with ID " + email + " has already leased 2 cars");
+            throw new ConflictException("Car with ID " + carId + " is held by another customer");
         }
 
-        // Validate car availability
-        if(!car.getStatus().equals(Status.IDLE))
+        // Validate user lease limits by taking one of the user's slots, concurrent starts by the same user queue up on this row
+        if(userRepository.reserveLeaseSlots(user.getUserId(), 1, MAX_ACTIVE_LEASES) == 0)
         {
-            throw new ActionNotAllowedException("Car with ID " + carId +" is not available for leasing. Current status : " +car.getStatus());
+            throw new ActionNotAllowedException("User with ID " + email + " has already leased " + MAX_ACTIVE_LEASES + " cars");
         }
 
+        // Update car status to ON_LEASE, only one of concurrent requests for the same car gets past this
+        car = carService.transitionStatus(carId, Status.IDLE, Status.ON_LEASE);
+
         // Create a new lease
         Lease lease = new Lease();
         lease.setCar(car);
         lease.setCustomer(user);
-        lease.setStartDate(LocalDateTime.now());
+        lease.setStartDate(startDate);
+        lease.setPlannedEndDate(plannedEndDate);
+
+        Lease savedLease = leaseRepository.save(lease);
+        eventPublisher.publishEvent(new LeaseChangedEvent(savedLease.getId()));
+
+        if(plannedEndDate != null)
+            eventPublisher.publishEvent(new LeaseEndPlannedEvent(savedLease.getId(), plannedEndDate));
 
-        // Update car status to ON_LEASE
-        car.setStatus(Status.ON_LEASE);
-        carService.saveCar(car);
+        carHolds.release(carId, user.getUserId()); // the hold did its job
 
         logger.info("Lease started successfully for carId: {} by userId: {}", carId, email);
-        return leaseRepository.save(lease);
+        return savedLease;
     }
 
     /**
@@ -93,7 +186,9 @@ public class LeaseService
      * @param leaseId the ID of the lease to end
      * @param user  the user ending the lease
      * @return the updated Lease object
+     * @throws ConflictException if the lease already ended, possibly by a concurrent request
      */
+    @Transactional
     public Lease endLease(Long leaseId, User user)
     {
         String email = user.getEmail();
@@ -104,43 +199,380 @@ public class LeaseService
 
         logger.debug("Lease retrieved: {}, User found: {}", lease, user);
 
-        if(!isValidUser(lease, user))
+        if(!isValidUser(lease.getCustomer().getUserId(), user))
         {
             throw new ActionNotAllowedException("User with ID " + email + " is not authorized to end lease ID "+ leaseId);
         }
 
         if(lease.getState().equals(State.ENDED))
         {
-            throw new ActionNotAllowedException("Lease with ID " + leaseId + " already ended");
+            throw new ConflictException("Lease with ID " + leaseId + " already ended");
         }
 
-        // End the lease and update car status
-        Car car = lease.getCar();
-        car.setStatus(Status.IDLE);
+        // End the lease and update car status, both conditional so a concurrent end of the same lease loses
+        LocalDateTime endDate = LocalDateTime.now();
 
-        lease.setEndDate(LocalDateTime.now());
+        if(leaseRepository.endIfActive(leaseId, endDate) == 0)
+        {
+            throw new ConflictException("Lease with ID " + leaseId + " already ended");
+        }
+
+        carService.transitionStatus(lease.getCar().getId(), Status.ON_LEASE, Status.IDLE);
+        userRepository.releaseLeaseSlots(lease.getCustomer().getUserId(), 1);
 
-        carService.saveCar(car);
+        // the conditional update went around the persistence context, reading it back keeps the end from being written twice
+        entityManager.refresh(lease);
+        eventPublisher.publishEvent(new LeaseChangedEvent(leaseId));
 
         logger.info("Lease with ID: {} ended successfully for userId: {}", leaseId, email);
 
-        return leaseRepository.save(lease);
+        return lease;
+    }
+
+    /**
+     * Starts leases on many cars for one user in a single transaction. The cars are read in one query,
+     * the lease slots are taken in one update, the status changes go out as one batch and the leases
+     * are inserted together. A car that cannot be leased is reported and skipped, unless the batch is
+     * all-or-nothing, in which case nothing is applied.
+     *
+     * @param carIds       the IDs of the cars to lease
+     * @param user         the user starting the leases
+     * @param allOrNothing whether one rejected car rolls back the whole batch, lease.batch.all-or-nothing when null
+     * @return one result per car ID, in request order
+     */
+    @Transactional
+    public List<LeaseBatchResult> startLeases(List<Long> carIds, User user, Boolean allOrNothing)
+    {
+        String email = user.getEmail();
+
+        logger.info("Starting {} leases by userId: {}", carIds.size(), email);
+
+        if(user.getRole().equals(Role.CAR_OWNER))
+        {
+            throw new ActionNotAllowedException("User with ID " + email + " is a car owner and cannot start a lease");
+        }
+
+        validateBatchSize(carIds);
+
+        Map<Long, CarSummary> cars = carService.getCarSummaries(distinctIds(carIds)).stream()
+                .collect(Collectors.toMap(CarSummary::getId, Function.identity()));
+
+        LeaseBatchResult[] results = new LeaseBatchResult[carIds.size()];
+
+        Set<Long> seen = new HashSet<>();
+
+        List<Integer> candidates = new ArrayList<>();
+
+        for(int index = 0; index < carIds.size(); index++)
+        {
+            Long carId = carIds.get(index);
+
+            CarSummary car = carId == null ? null : cars.get(carId);
+
+            if(carId == null || !seen.add(carId))
+                results[index] = LeaseBatchResult.rejected(index, carId, null, "Car ID missing or repeated in the batch");
+            else if(car == null)
+                results[index] = LeaseBatchResult.rejected(index, carId, null, "Car with ID " + carId + " not found");
+            else if(car.getStatus() != Status.IDLE)
+                results[index] = LeaseBatchResult.rejected(index, carId, null, "Car with ID " + carId + " is not available for leasing. Current status : " + car.getStatus());
+            else if(carHolds.isHeldByOther(carId, user.getUserId()))
+                results[index] = LeaseBatchResult.rejected(index, carId, null, "Car with ID " + carId + " is held by another customer");
+            else
+                candidates.add(index);
+        }
+
+        // cars beyond the user's free lease slots are rejected, in request order
+        int slots = reserveFreeLeaseSlots(user.getUserId(), candidates.size());
+
+        for(int index : candidates.subList(slots, candidates.size()))
+            results[index] = LeaseBatchResult.rejected(index, carIds.get(index), null, "User with ID " + email + " has already leased " + MAX_ACTIVE_LEASES + " cars");
+
+        candidates = candidates.subList(0, slots);
+
+        if(isAllOrNothing(allOrNothing) && candidates.size() < carIds.size())
+        {
+            for(int index : candidates)
+                results[index] = LeaseBatchResult.rolledBack(index, carIds.get(index), null);
+
+            return rollBack(results); // gives the slots back
+        }
+
+        Set<Long> leased = carService.transitionStatuses(candidates.stream().map(carIds::get).toList(), Status.IDLE, Status.ON_LEASE);
+
+        if(leased.size() < slots)
+            userRepository.releaseLeaseSlots(user.getUserId(), slots - leased.size());
+
+        LocalDateTime startDate = LocalDateTime.now();
+
+        List<Lease> leases = new ArrayList<>();
+
+        List<Integer> startedRows = new ArrayList<>();
+
+        for(int index : candidates)
+        {
+            Long carId = carIds.get(index);
+
+            if(!leased.contains(carId)) // taken by a concurrent request since it was read
+            {
+                results[index] = LeaseBatchResult.rejected(index, carId, null, "Car with ID " + carId + " is no longer IDLE");
+                continue;
+            }
+
+            Lease lease = new Lease();
+            lease.setCar(entityManager.getReference(Car.class, carId));
+            lease.setCustomer(user);
+            lease.setStartDate(startDate);
+
+            leases.add(lease);
+            startedRows.add(index);
+        }
+
+        List<Lease> savedLeases = leaseRepository.saveAll(leases);
+
+        for(int i = 0; i < savedLeases.size(); i++)
+        {
+            int index = startedRows.get(i);
+            Long leaseId = savedLeases.get(i).getId();
+
+            results[index] = LeaseBatchResult.applied(index, LeaseBatchResult.Outcome.STARTED, carIds.get(index), leaseId);
+            eventPublisher.publishEvent(new LeaseChangedEvent(leaseId));
+            carHolds.release(carIds.get(index), user.getUserId());
+        }
+
+        logger.info("Started {} of {} leases by userId: {}", savedLeases.size(), carIds.size(), email);
+
+        return finishBatch(results, allOrNothing);
+    }
+
+    /**
+     * Ends many leases of one user in a single transaction. The leases are read in one query, and the
+     * lease ends and the car status changes go out as one batch each. A lease that cannot be ended is
+     * reported and skipped, unless the batch is all-or-nothing, in which case nothing is applied.
+     *
+     * @param leaseIds     the IDs of the leases to end
+     * @param user         the user ending the leases
+     * @param allOrNothing whether one rejected lease rolls back the whole batch, lease.batch.all-or-nothing when null
+     * @return one result per lease ID, in request order
+     * @throws ConflictException if the car of an ended lease is no longer ON_LEASE, nothing is applied then
+     */
+    @Transactional
+    public List<LeaseBatchResult> endLeases(List<Long> leaseIds, User user, Boolean allOrNothing)
+    {
+        String email = user.getEmail();
+
+        logger.info("Ending {} leases for {}", leaseIds.size(), email);
+
+        validateBatchSize(leaseIds);
+
+        List<LeaseBatchResult> results = endLeaseBatch(leaseIds, lease -> isValidUser(lease.getCustomerId(), user)
+                ? null : "User with ID " + email + " is not authorized to end lease ID " + lease.getId(), allOrNothing);
+
+        logger.info("Ended {} of {} leases for {}", results.stream().filter(result -> result.getOutcome() == LeaseBatchResult.Outcome.ENDED).count(), leaseIds.size(), email);
+
+        return results;
+    }
+
+    /**
+     * Ends the given leases whose planned end date has passed, the same way as {@link #endLeases}.
+     * Leases that ended in the meantime, or are not due, are reported as rejected and left alone.
+     *
+     * @param leaseIds the IDs of the leases to end, any number
+     * @param now      the time planned end dates are compared with
+     * @return one result per lease ID, in request order
+     * @throws ConflictException if the car of an ended lease is no longer ON_LEASE, nothing is applied then
+     */
+    @Transactional
+    public List<LeaseBatchResult> expireLeases(List<Long> leaseIds, LocalDateTime now)
+    {
+        List<LeaseBatchResult> results = endLeaseBatch(leaseIds, lease -> lease.getPlannedEndDate() != null && !lease.getPlannedEndDate().isAfter(now)
+                ? null : "Lease with ID " + lease.getId() + " is not due, planned end: " + lease.getPlannedEndDate(), false);
+
+        logger.info("Expired {} of {} due leases", results.stream().filter(result -> result.getOutcome() == LeaseBatchResult.Outcome.ENDED).count(), leaseIds.size());
+
+        return results;
+    }
+
+    /**
+     * Reads the leases in one query, ends the ones that pass the checks as one batch, and frees their cars
+     * as another.
+     *
+     * @param refusal why a lease may not be ended by the caller, null if it may
+     */
+    private List<LeaseBatchResult> endLeaseBatch(List<Long> leaseIds, Function<LeaseRepository.LeaseRef, String> refusal, Boolean allOrNothing)
+    {
+        Map<Long, LeaseRepository.LeaseRef> leases = leaseRepository.findLeaseRefsByIds(distinctIds(leaseIds)).stream()
+                .collect(Collectors.toMap(LeaseRepository.LeaseRef::getId, Function.identity()));
+
+        // ids that are not in the lease table may belong to archived, so long ended, leases
+        List<Long> missing = distinctIds(leaseIds).stream().filter(leaseId -> !leases.containsKey(leaseId)).toList();
+
+        Set<Long> archived = missing.isEmpty() ? Set.of() : new HashSet<>(archivedLeaseRepository.findArchivedIds(missing));
+
+        LeaseBatchResult[] results = new LeaseBatchResult[leaseIds.size()];
+
+        Set<Long> seen = new HashSet<>();
+
+        List<Integer> candidates = new ArrayList<>();
+
+        for(int index = 0; index < leaseIds.size(); index++)
+        {
+            Long leaseId = leaseIds.get(index);
+
+            LeaseRepository.LeaseRef lease = leaseId == null ? null : leases.get(leaseId);
+
+            if(leaseId == null || !seen.add(leaseId))
+                results[index] = LeaseBatchResult.rejected(index, null, leaseId, "Lease ID missing or repeated in the batch");
+            else if(archived.contains(leaseId))
+                results[index] = LeaseBatchResult.rejected(index, null, leaseId, "Lease with ID " + leaseId + " already ended");
+            else if(lease == null)
+                results[index] = LeaseBatchResult.rejected(index, null, leaseId, "Lease data not found in records");
+            else if(refusal.apply(lease) != null)
+                results[index] = LeaseBatchResult.rejected(index, lease.getCarId(), leaseId, refusal.apply(lease));
+            else if(lease.getState() == State.ENDED)
+                results[index] = LeaseBatchResult.rejected(index, lease.getCarId(), leaseId, "Lease with ID " + leaseId + " already ended");
+            else
+                candidates.add(index);
+        }
+
+        if(isAllOrNothing(allOrNothing) && candidates.size() < leaseIds.size())
+        {
+            for(int index : candidates)
+                results[index] = LeaseBatchResult.rolledBack(index, leases.get(leaseIds.get(index)).getCarId(), leaseIds.get(index));
+
+            return rollBack(results);
+        }
+
+        int[] ended = leaseRepository.endIfActive(candidates.stream().map(leaseIds::get).toList(), LocalDateTime.now());
+
+        List<Integer> endedRows = new ArrayList<>();
+
+        Map<Long, Integer> slotsByCustomer = new HashMap<>();
+
+        for(int i = 0; i < ended.length; i++)
+        {
+            int index = candidates.get(i);
+            LeaseRepository.LeaseRef lease = leases.get(leaseIds.get(index));
+
+            if(ended[i] == 0) // ended by a concurrent request since it was read
+            {
+                results[index] = LeaseBatchResult.rejected(index, lease.getCarId(), lease.getId(), "Lease with ID " + lease.getId() + " already ended");
+                continue;
+            }
+
+            endedRows.add(index);
+            slotsByCustomer.merge(lease.getCustomerId(), 1, Integer::sum);
+        }
+
+        List<Long> carIds = endedRows.stream().map(index -> leases.get(leaseIds.get(index)).getCarId()).toList();
+
+        Set<Long> freed = carService.transitionStatuses(carIds, Status.ON_LEASE, Status.IDLE);
+
+        if(freed.size() < carIds.size())
+        {
+            throw new ConflictException("Cars with ID " + carIds.stream().filter(carId -> !freed.contains(carId)).toList() + " are no longer ON_LEASE");
+        }
+
+        slotsByCustomer.forEach(userRepository::releaseLeaseSlots);
+
+        for(int index : endedRows)
+        {
+            LeaseRepository.LeaseRef lease = leases.get(leaseIds.get(index));
+
+            results[index] = LeaseBatchResult.applied(index, LeaseBatchResult.Outcome.ENDED, lease.getCarId(), lease.getId());
+            eventPublisher.publishEvent(new LeaseChangedEvent(lease.getId()));
+        }
+
+        return finishBatch(results, allOrNothing);
+    }
+
+    /**
+     * @param size requested page size, null for the configured default
+     * @return the size capped to lease.page.max-size
+     */
+    private int resolvePageSize(Integer size)
+    {
+        if(size == null)
+            return defaultPageSize;
+
+        if(size <= 0)
+            throw new FieldMissingException("Page size must be positive");
+
+        return Math.min(size, maxPageSize);
+    }
+
+    private void validateBatchSize(List<Long> ids)
+    {
+        if(CommonUtils.nullOrEmpty(ids))
+            throw new FieldMissingException("At least one ID required");
+
+        if(ids.size() > maxBatchSize)
+            throw new FieldMissingException("At most " + maxBatchSize + " leases can be handled at once, got " + ids.size());
+    }
+
+    /**
+     * Takes as many of the wanted lease slots as are free. The count is read first and the slots taken
+     * conditionally, so a concurrent start or end in between only costs another attempt.
+     *
+     * @return the number of slots taken, at most <code>wanted</code>
+     */
+    private int reserveFreeLeaseSlots(Long userId, int wanted)
+    {
+        for(int attempt = 0; attempt < 3 && wanted > 0; attempt++)
+        {
+            int slots = Math.min(wanted, MAX_ACTIVE_LEASES - userRepository.findActiveLeaseCount(userId));
+
+            if(slots <= 0)
+                return 0;
+
+            if(userRepository.reserveLeaseSlots(userId, slots, MAX_ACTIVE_LEASES) > 0)
+                return slots;
+        }
+
+        if(wanted > 0)
+            throw new ConflictException("Leases of user ID " + userId + " are changing concurrently, try again");
+
+        return 0;
+    }
+
+    private boolean isAllOrNothing(Boolean allOrNothing)
+    {
+        return allOrNothing != null ? allOrNothing : allOrNothingByDefault;
+    }
+
+    private List<LeaseBatchResult> finishBatch(LeaseBatchResult[] results, Boolean allOrNothing)
+    {
+        if(isAllOrNothing(allOrNothing) && Arrays.stream(results).anyMatch(LeaseBatchResult::isRejected))
+            return rollBack(results);
+
+        return List.of(results);
+    }
+
+    private List<LeaseBatchResult> rollBack(LeaseBatchResult[] results)
+    {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+
+        return Arrays.stream(results).map(LeaseBatchResult::rolledBack).toList();
+    }
+
+    private static List<Long> distinctIds(List<Long> ids)
+    {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
     }
 
     /**
      * Validates if the user is authorized to manage the lease.
      *
-     * @param lease the lease object
-     * @param user  the user attempting the action
+     * @param customerId the ID of the customer of the lease
+     * @param user       the user attempting the action
      * @return true if the user is authorized, false otherwise
      */
-    private boolean isValidUser(Lease lease, User user)
+    private boolean isValidUser(Long customerId, User user)
     {
-        return user.getUserId().equals(lease.getCustomer().getUserId()) || user.getRole().equals(Role.ADMIN);
+        return user.getUserId().equals(customerId) || user.getRole().equals(Role.ADMIN);
     }
 
     /**
-     * Retrieves the lease history for a specific user.
+     * Retrieves the lease history for a specific user, archived leases included.
      *
      * @param user the user object
      * @return a list of Lease objects associated with the user
@@ -154,22 +586,82 @@ public class LeaseService
             throw new ActionNotAllowedException("Car owner (Email ID: " + user.getEmail() + ") can't have lease history");
         }
 
-        return leaseRepository.findAllByCustomer(user);
+        List<Lease> leases = new ArrayList<>(leaseRepository.findAllByCustomer(user));
+        archivedLeaseRepository.findAllByCustomer(user).forEach(archived -> leases.add(archived.toLease()));
+
+        return leases;
+    }
+
+    /**
+     * Lease history of a customer as listing rows, read in a single query.
+     *
+     * @param principal the authenticated customer
+     */
+    public List<LeaseSummary> getLeaseSummariesForUser(UserPrincipal principal)
+    {
+        logger.info("Fetching lease history for email: {}", principal.getEmail());
+
+        if(principal.getRole().equals(Role.CAR_OWNER))
+        {
+            throw new ActionNotAllowedException("Car owner (Email ID: " + principal.getEmail() + ") can't have lease history");
+        }
+
+        return leaseRepository.findSummariesByCustomerId(principal.getUserId());
+    }
+
+    /**
+     * One page of the lease history, newest first: all customers for an admin, the own leases for a customer.
+     *
+     * @param criteria     filters, all optional
+     * @param cursor       nextCursor of the previous page, null for the first page
+     * @param size         page size, null for lease.page.default-size
+     * @param includeTotal whether to count all matching leases as well, a second query
+     * @return one page of matching leases ordered by start date and id, descending
+     */
+    public CursorPage<LeaseSummary> getLeaseHistory(UserPrincipal principal, LeaseHistoryCriteria criteria, String cursor, Integer size, boolean includeTotal)
+    {
+        logger.info("Fetching lease history with {} for email: {}", criteria, principal.getEmail());
+
+        if(principal.getRole().equals(Role.CAR_OWNER))
+        {
+            throw new ActionNotAllowedException("Car owner (Email ID: " + principal.getEmail() + ") can't have lease history");
+        }
+
+        Long customerId = principal.getRole().equals(Role.ADMIN) ? null : principal.getUserId();
+
+        int pageSize = resolvePageSize(size);
+
+        List<LeaseSummary> fetched = leaseRepository.findHistory(criteria, customerId, LeaseCursor.decode(cursor), pageSize + 1);
+
+        return CursorPage.withCursor(fetched, pageSize, LeaseCursor::encode,
+                includeTotal ? leaseRepository.countHistory(criteria, customerId) : null);
     }
 
     /**
-     * Retrieves the complete lease history.
+     * Complete lease history as listing rows, read in a single query.
+     */
+    public List<LeaseSummary> getAllLeaseSummaries()
+    {
+        logger.info("Fetching all lease history");
+        return leaseRepository.findAllSummaries();
+    }
+
+    /**
+     * Retrieves the complete lease history, archived leases included.
      *
      * @return a list of all Lease objects
      */
     public List<Lease> getAllLeaseHistory()
     {
         logger.info("Fetching all lease history");
-        return leaseRepository.findAll();
+        List<Lease> leases = new ArrayList<>(leaseRepository.findAll());
+        archivedLeaseRepository.findAll().forEach(archived -> leases.add(archived.toLease()));
+
+        return leases;
     }
 
     /**
-     * Retrieves a specific lease by its ID.
+     * Retrieves a specific lease by its ID, from the archive if it was moved there.
      *
      * @param leaseId the ID of the lease
      * @return the Lease object
@@ -179,19 +671,10 @@ public class LeaseService
         logger.info("Fetching lease with ID: {}", leaseId);
 
         return leaseRepository.findById(leaseId)
+                .or(() -> archivedLeaseRepository.findWithCustomerAndCarById(leaseId).map(ArchivedLease::toLease))
                 .orElseThrow(() -> new NotFoundException("Lease data not found in records"));
     }
 
-    private boolean validateActiveLease(List<Lease> leases)
-    {
-        if(CommonUtils.nullOrEmpty(leases))
-            return false;
-        return leases
-                .stream()
-                .filter(lease -> lease.getState().equals(State.ACTIVE))
-                .count() >= 2;
-    }
-
     public byte[] getLeaseHistoryAsPDF()
     {
         return reportService.generateLeaseHistoryReport(getAllLeaseHistory());
@@ -0,0 +1,102 @@
+package com.nk.cars.service;
+
+import com.nk.cars.entity.AuthenticationProvider;
+import com.nk.cars.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ProviderBulkheads.java
+ *
+ * <p>
+ * Caps the number of concurrent introspection calls per token provider, so a slow GitHub or
+ * Google endpoint can only hold a bounded number of request threads. Callers that cannot get a
+ * permit within the acquire timeout are rejected instead of queuing.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class ProviderBulkheads implements MeterBinder
+{
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<AuthenticationProvider, Semaphore> permits = new EnumMap<>(AuthenticationProvider.class);
+
+    private final long acquireTimeoutNanos;
+
+    public ProviderBulkheads(@Value("${auth.provider.max-concurrent-calls:20}") int maxConcurrentCalls,
+                             @Value("${auth.provider.acquire-timeout:500ms}") Duration acquireTimeout)
+    {
+        for(AuthenticationProvider provider : AuthenticationProvider.values())
+        {
+            permits.put(provider, new Semaphore(maxConcurrentCalls));
+        }
+
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Runs the call while holding one of the provider's permits.
+     *
+     * @throws UpstreamUnavailableException if no permit became free in time
+     */
+    public <T> T call(AuthenticationProvider provider, Supplier<T> call)
+    {
+        Semaphore semaphore = permits.get(provider);
+
+        try
+        {
+            if(!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS))
+            {
+                logger.warn("Bulkhead full for provider {}, rejecting call", provider);
+                throw new UpstreamUnavailableException(provider + " token validation is busy, try again shortly");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted while waiting for " + provider + " token validation");
+        }
+
+        try
+        {
+            return call.get();
+        }
+        finally
+        {
+            semaphore.release();
+        }
+    }
+
+    public int availablePermits(AuthenticationProvider provider)
+    {
+        return permits.get(provider).availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        permits.forEach((provider, semaphore) -> {
+            if(provider != AuthenticationProvider.LOCAL) // local tokens never go upstream
+                Gauge.builder("auth.provider.bulkhead.available", semaphore, Semaphore::availablePermits)
+                        .tag("provider", provider.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.nk.cars.service;
+
+import com.nk.cars.utils.CommonUtils;
+import com.nk.cars.utils.ExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * TokenCache.java
+ *
+ * <p>
+ * Remembers provider tokens (GitHub / Google) that were already verified upstream, so repeated
+ * requests with the same bearer token skip the introspection call until the entry expires.
+ * Tokens the provider rejected are remembered too, for a shorter time, so replaying a bad token
+ * does not cost another upstream call. Tokens are keyed by their SHA-256 hash, the raw value is never stored.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+@Component
+public class TokenCache implements MeterBinder
+{
+    private final ExpiringCache<String, String> verifiedTokens;
+
+    private final ExpiringCache<String, Boolean> rejectedTokens;
+
+    public TokenCache(@Value("${auth.token-cache.max-size:10000}") int maxSize,
+                      @Value("${auth.token-cache.ttl:5m}") Duration ttl,
+                      @Value("${auth.token-cache.rejected-ttl:1m}") Duration rejectedTtl)
+    {
+        this.verifiedTokens = new ExpiringCache<>(maxSize, ttl);
+        this.rejectedTokens = new ExpiringCache<>(maxSize, rejectedTtl);
+    }
+
+    /**
+     * @return the email resolved for this token earlier, or null if unknown or expired
+     */
+    public String getEmail(String token)
+    {
+        return verifiedTokens.get(CommonUtils.sha256Hex(token));
+    }
+
+    /**
+     * @param expiresIn remaining lifetime reported by the provider, may be null
+     */
+    public void putEmail(String token, String email, Duration expiresIn)
+    {
+        verifiedTokens.put(CommonUtils.sha256Hex(token), email, expiresIn);
+    }
+
+    public boolean isRejected(String token)
+    {
+        return rejectedTokens.get(CommonUtils.sha256Hex(token)) != null;
+    }
+
+    public void putRejected(String token)
+    {
+        rejectedTokens.put(CommonUtils.sha256Hex(token), Boolean.TRUE);
+    }
+
+    public void invalidate(String token)
+    {
+        verifiedTokens.invalidate(CommonUtils.sha256Hex(token));
+    }
+
+    public int size()
+    {
+        return verifiedTokens.size();
+    }
+
+    public long hitCount()
+    {
+        return verifiedTokens.hitCount();
+    }
+
+    public long missCount()
+    {
+        return verifiedTokens.missCount();
+    }
+
+    public long evictionCount()
+    {
+        return verifiedTokens.evictionCount();
+    }
+
+    public int rejectedSize()
+    {
+        return rejectedTokens.size();
+    }
+
+    public long rejectedHitCount()
+    {
+        return rejectedTokens.hitCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        bind(registry, "verified", verifiedTokens);
+        bind(registry, "rejected", rejectedTokens);
+    }
+
+    private static void bind(MeterRegistry registry, String cacheName, ExpiringCache<String, ?> cache)
+    {
+        FunctionCounter.builder("auth.token.cache", cache, ExpiringCache::hitCount)
+                .tags("cache", cacheName, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth.token.cache", cache, ExpiringCache::missCount)
+                .tags("cache", cacheName, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("auth.token.cache.evictions", cache, ExpiringCache::evictionCount)
+                .tags("cache", cacheName)
+                .register(registry);
+        Gauge.builder("auth.token.cache.size", cache, ExpiringCache::size)
+                .tags("cache", cacheName)
+                .register(registry);
+    }
+}
@@ -1,18 +1,25 @@
 package com.nk.cars.service;
 
-import com.nk.cars.entity.User;
+import com.nk.cars.config.OutboundHttpClients;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.AuthenticationProvider;
+import com.nk.cars.exception.InvalidTokenException;
+import com.nk.cars.exception.UpstreamUnavailableException;
+import com.nk.cars.utils.CommonUtils;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
 
 /**
  * TokenService.java
@@ -38,52 +45,250 @@ public class TokenService
 
     private final UserService userService;
 
-    private static final RestTemplate restTemplate = new RestTemplate();
+    private final TokenCache tokenCache;
 
-    static HttpHeaders httpHeaders = new HttpHeaders();
+    private final ProviderBulkheads providerBulkheads;
 
-    static HttpEntity<String> entity = new HttpEntity<>(httpHeaders);
+    private final OutboundHttpClients outboundHttpClients;
 
-    @SuppressWarnings({"unchecked","rawtypes"})
-    public User validateTokenAndRetrieveUser(String token) throws Exception
+    private final AuthMetrics authMetrics;
+
+    // Introspections currently running upstream, keyed by token hash, shared by concurrent callers
+    private final ConcurrentMap<String, CompletableFuture<String>> inflightIntrospections = new ConcurrentHashMap<>();
+
+    @Value("${auth.provider.coalesce-wait:10s}")
+    private Duration coalesceWait = Duration.ofSeconds(10);
+
+    // Shapes of the accepted tokens, anything else is rejected before any lookup or network call
+    private static final Pattern LOCAL_TOKEN = Pattern.compile("ey[A-Za-z0-9_-]*\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+
+    private static final Pattern GITHUB_TOKEN = Pattern.compile("gho_[A-Za-z0-9_]{20,251}");
+
+    private static final Pattern GOOGLE_TOKEN = Pattern.compile("ya29\\.[A-Za-z0-9._-]{10,2048}");
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+
+    public UserPrincipal validateTokenAndRetrievePrincipal(String token) throws Exception
     {
-        String email;
+        AuthenticationProvider provider = identifyProvider(token);
+
+        Timer.Sample sample = authMetrics.startTimer();
+
+        try
+        {
+            return validateTokenAndRetrievePrincipal(token, provider);
+        }
+        finally
+        {
+            authMetrics.recordValidation(sample, provider);
+        }
+    }
 
-        if(token.startsWith("gho_")) // Github
+    private UserPrincipal validateTokenAndRetrievePrincipal(String token, AuthenticationProvider provider)
+    {
+        if(provider == AuthenticationProvider.LOCAL) // Local user
         {
-            logger.info("Github authorization");
+            logger.info("Local authorization");
+
+            return authService.extractPrincipal(token);
+        }
+
+        if(tokenCache.isRejected(token))
+            throw new InvalidTokenException("Token was rejected by its provider");
+
+        String email = resolveProviderEmail(token, provider);
+
+        if(email == null)
+            return null;
+
+        return authMetrics.timeUserLookup(() -> userService.getPrincipalByEmail(email));
+    }
+
+    /**
+     * @return true for tokens signed by this application, false for GitHub / Google access tokens
+     */
+    public boolean isLocalToken(String token)
+    {
+        return token.startsWith("ey");
+    }
 
-            httpHeaders.set("Authorization", "Bearer "+token);
-            ResponseEntity<Map> exchange = restTemplate.exchange(githubBaseUrl, HttpMethod.GET, entity, Map.class);
+    /**
+     * Tells which provider issued the token from its shape alone.
+     *
+     * @throws InvalidTokenException if the token does not look like any accepted token
+     */
+    public AuthenticationProvider identifyProvider(String token)
+    {
+        if(LOCAL_TOKEN.matcher(token).matches())
+            return AuthenticationProvider.LOCAL;
 
-            Map<String, Object> response = exchange.getBody();
+        if(GITHUB_TOKEN.matcher(token).matches())
+            return AuthenticationProvider.GITHUB;
 
-            if (response == null || response.containsKey("error")) {
-                return null; // Token is invalid or expired
-            }
+        if(GOOGLE_TOKEN.matcher(token).matches())
+            return AuthenticationProvider.GOOGLE;
 
-            email = (String) response.get("email");
+        throw new InvalidTokenException("Malformed token");
+    }
+
+    private String resolveProviderEmail(String token, AuthenticationProvider provider)
+    {
+        // Provider tokens are only verified upstream once per cache ttl
+        String cachedEmail = tokenCache.getEmail(token);
+
+        if(cachedEmail != null)
+        {
+            logger.debug("Provider token resolved from cache");
+            return cachedEmail;
         }
-        else if(token.startsWith("ey")) // Local user
+
+        String tokenHash = CommonUtils.sha256Hex(token);
+
+        CompletableFuture<String> introspection = new CompletableFuture<>();
+        CompletableFuture<String> inflight = inflightIntrospections.putIfAbsent(tokenHash, introspection);
+
+        if(inflight != null)
         {
-            logger.info("Local authorization");
+            logger.debug("Joining in-flight introspection for provider token");
+            authMetrics.recordCoalesced(provider);
+            return awaitIntrospection(inflight);
+        }
 
-            email = authService.extractUsername(token);
+        try
+        {
+            String email = introspect(token, provider);
+            introspection.complete(email);
+            return email;
         }
-        else // assuming it as google
+        catch (RuntimeException e)
         {
-            logger.info("Google authorization");
+            introspection.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            inflightIntrospections.remove(tokenHash, introspection);
+        }
+    }
 
-            String authorizationUrl = googleBaseUrl + token;
-            // Call Google's introspection endpoint
-            Map<String, Object> response = restTemplate.getForObject(authorizationUrl, Map.class);
+    private String introspect(String token, AuthenticationProvider provider)
+    {
+        try
+        {
+            if(provider == AuthenticationProvider.GITHUB)
+                return providerBulkheads.call(provider, () -> authMetrics.timeUpstream(provider, () -> introspectGithubToken(token)));
 
-            if(response == null || response.containsKey("error"))
-                return null;
+            return providerBulkheads.call(provider, () -> authMetrics.timeUpstream(provider, () -> introspectGoogleToken(token)));
+        }
+        catch (HttpClientErrorException e)
+        {
+            // any other 4xx (429 when the provider throttles us) says nothing about the token, caching it would lock its user out
+            if(!rejectsToken(e))
+                throw new UpstreamUnavailableException(provider + " could not validate the token, status " + e.getStatusCode().value());
+
+            // the token itself is bad, remember it for a while
+            tokenCache.putRejected(token);
+            throw new InvalidTokenException(provider + " rejected the token with status " + e.getStatusCode().value());
+        }
+    }
+
+    /**
+     * @return true if the provider answered 400, 401 or 403, which is how GitHub and Google refuse a bad token
+     */
+    static boolean rejectsToken(HttpClientErrorException e)
+    {
+        int status = e.getStatusCode().value();
+        return status == 400 || status == 401 || status == 403;
+    }
+
+    private String awaitIntrospection(CompletableFuture<String> inflight)
+    {
+        try
+        {
+            return inflight.get(coalesceWait.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        catch (ExecutionException e)
+        {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (TimeoutException e)
+        {
+            throw new UpstreamUnavailableException("Timed out waiting for token validation");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted while waiting for token validation");
+        }
+    }
+
+    private String introspectGithubToken(String token)
+    {
+        logger.info("Github authorization");
+
+        // Headers are built per request, the client itself is shared
+        Map<String, Object> response = outboundHttpClients.forDestination(OutboundHttpClients.GITHUB)
+                .get()
+                .uri(githubBaseUrl)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .body(JSON_OBJECT);
 
-            email = (String) response.get("email");
+        if (response == null || response.containsKey("error")) {
+            tokenCache.putRejected(token);
+            throw new InvalidTokenException("GITHUB reported the token as invalid or expired");
         }
 
-        return userService.getUserByEmail(email);
+        String email = (String) response.get("email");
+
+        if(email != null)
+            tokenCache.putEmail(token, email, null);
+
+        return email;
+    }
+
+    private String introspectGoogleToken(String token) // assuming it as google
+    {
+        logger.info("Google authorization");
+
+        // Call Google's introspection endpoint, the token is a uri variable so it never shows up in metric tags
+        Map<String, Object> response = outboundHttpClients.forDestination(OutboundHttpClients.GOOGLE)
+                .get()
+                .uri(googleBaseUrl + "{token}", token)
+                .retrieve()
+                .body(JSON_OBJECT);
+
+        if(response == null || response.containsKey("error"))
+        {
+            tokenCache.putRejected(token);
+            throw new InvalidTokenException("GOOGLE reported the token as invalid or expired");
+        }
+
+        String email = (String) response.get("email");
+
+        if(email != null)
+            tokenCache.putEmail(token, email, expiresIn(response));
+
+        return email;
+    }
+
+    // Google reports the remaining lifetime of the token, never cache it beyond that
+    private static Duration expiresIn(Map<String, Object> response)
+    {
+        Object expiresIn = response.get("expires_in");
+
+        if(expiresIn == null)
+            return null;
+
+        try
+        {
+            return Duration.ofSeconds(Long.parseLong(expiresIn.toString()));
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
     }
 }
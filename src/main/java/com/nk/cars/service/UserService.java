@@ -2,6 +2,7 @@ package com.nk.cars.service;
 
 import com.nk.cars.dto.ApiResponse;
 import com.nk.cars.dto.ResponseType;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.Role;
 import com.nk.cars.entity.User;
 import com.nk.cars.exception.ActionNotAllowedException;
@@ -100,6 +101,34 @@ public class UserService
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Retrieves only the id, email and role of a user, for authentication.
+     *
+     * @param email the email of the user
+     * @return the principal, or null if the user is not registered
+     */
+    public UserPrincipal getPrincipalByEmail(String email)
+    {
+        return userRepository.findPrincipalByEmail(email);
+    }
+
+    /**
+     * Retrieves only the id, email and role of a user, without the eager associations.
+     *
+     * @param id the ID of the user
+     * @return the principal
+     * @throws NotFoundException if the user is not found
+     */
+    public UserPrincipal getPrincipalById(Long id)
+    {
+        UserPrincipal principal = userRepository.findPrincipalById(id);
+
+        if(principal == null)
+            throw new NotFoundException("User with ID " + id +" not found");
+
+        return principal;
+    }
+
     /**
      * Retrieves a list of all registered users.
      *
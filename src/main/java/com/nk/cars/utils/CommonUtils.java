@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 
@@ -51,4 +54,23 @@ public class CommonUtils
         }
     }
 
+    /**
+     * Hashes the given value with SHA-256 so secrets such as bearer tokens can be used as keys
+     * without being held in memory as plain text.
+     *
+     * @return lowercase hex encoded digest
+     */
+    public static String sha256Hex(String value)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
 }
@@ -0,0 +1,185 @@
+package com.nk.cars.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * ExpiringCache.java
+ *
+ * <p>
+ * Small bounded in-memory cache where every entry carries its own expiry.
+ * Entries are evicted when they expire or, once the cache is full, in least recently used order.
+ * Hit, miss and eviction counters are kept so callers can expose them as metrics.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.utils
+ * @created Oct 18, 2026
+ */
+public class ExpiringCache<K, V>
+{
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExpiringCache(int maxSize, Duration ttl)
+    {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param ticker source of monotonic nanos, replaceable in tests
+     */
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier ticker)
+    {
+        if(maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be positive");
+
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true); // access order for LRU eviction
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public V get(K key)
+    {
+        synchronized (entries)
+        {
+            Entry<V> entry = entries.get(key);
+
+            if(entry == null)
+            {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            if(entry.expiresAt - ticker.getAsLong() <= 0)
+            {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value)
+    {
+        put(key, value, null);
+    }
+
+    /**
+     * Caches the value for the shorter of the configured ttl and the given one.
+     *
+     * @param ttl upper bound for this entry, ignored when null
+     */
+    public void put(K key, V value, Duration ttl)
+    {
+        long entryTtl = ttl == null ? ttlNanos : Math.min(ttlNanos, ttl.toNanos());
+
+        if(entryTtl <= 0)
+            return;
+
+        synchronized (entries)
+        {
+            entries.put(key, new Entry<>(value, ticker.getAsLong() + entryTtl));
+
+            if(entries.size() > maxSize)
+                evictOverflow();
+        }
+    }
+
+    /**
+     * Returns the live value for the key, creating and caching it first if absent or expired.
+     */
+    public V computeIfAbsent(K key, Function<K, V> mappingFunction)
+    {
+        synchronized (entries)
+        {
+            V value = get(key);
+
+            if(value == null)
+            {
+                value = mappingFunction.apply(key);
+                put(key, value);
+            }
+
+            return value;
+        }
+    }
+
+    public void invalidate(K key)
+    {
+        synchronized (entries)
+        {
+            entries.remove(key);
+        }
+    }
+
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+        }
+    }
+
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    public long hitCount()
+    {
+        return hits.get();
+    }
+
+    public long missCount()
+    {
+        return misses.get();
+    }
+
+    public long evictionCount()
+    {
+        return evictions.get();
+    }
+
+    // Entries are kept in access order, so the eldest one is the least recently used
+    private void evictOverflow()
+    {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        while(entries.size() > maxSize && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
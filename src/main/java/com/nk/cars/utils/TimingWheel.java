@@ -0,0 +1,157 @@
+package com.nk.cars.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TimingWheel.java
+ *
+ * <p>
+ * Hierarchical timing wheel that hands out items once their deadline has passed. Each level has 64 slots,
+ * a slot on level <code>n</code> spans 64<sup>n</sup> ticks, so scheduling is O(1) whatever the deadline,
+ * and an item is moved down a level at most once per level before it expires. Advancing costs one step
+ * per elapsed tick plus the items that expire or move down. Items cannot be cancelled, callers check
+ * whether an expired item still applies.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.utils
+ * @created Oct 18, 2026
+ */
+public class TimingWheel<T>
+{
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final long SLOT_MASK = SLOTS - 1;
+
+    // enough levels for any tick distance below 2^63
+    private static final int LEVELS = 63 / SLOT_BITS + 1;
+
+    private final long tickMillis;
+
+    private final Node<T>[][] buckets;
+
+    private List<T> due = new ArrayList<>();
+
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * @param tick        resolution, items expire at most one tick after their deadline
+     * @param startMillis current time in epoch millis, deadlines up to it are due on the first advance
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, long startMillis)
+    {
+        if(tick.toMillis() <= 0)
+            throw new IllegalArgumentException("tick must be at least 1 ms");
+
+        this.tickMillis = tick.toMillis();
+        this.buckets = new Node[LEVELS][SLOTS];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Adds the item, an item whose deadline already passed is due on the next advance.
+     *
+     * @param deadlineMillis epoch millis at which the item expires
+     */
+    public synchronized void schedule(T item, long deadlineMillis)
+    {
+        place(new Node<>(item, Math.ceilDiv(deadlineMillis, tickMillis)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to the given time.
+     *
+     * @param nowMillis current time in epoch millis, an earlier time than the last advance is ignored
+     * @return items whose deadline is at or before <code>nowMillis</code>, in no particular order
+     */
+    public synchronized List<T> advance(long nowMillis)
+    {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+
+        while(currentTick < nowTick)
+        {
+            currentTick++;
+
+            // a level moves its next slot down whenever all levels below it wrapped around
+            for(int level = LEVELS - 1; level > 0; level--)
+            {
+                if((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0)
+                {
+                    for(Node<T> node = detach(level); node != null; )
+                    {
+                        Node<T> next = node.next;
+                        place(node);
+                        node = next;
+                    }
+                }
+            }
+
+            for(Node<T> node = detach(0); node != null; node = node.next)
+                due.add(node.item);
+        }
+
+        List<T> expired = due;
+        due = new ArrayList<>();
+        size -= expired.size();
+
+        return expired;
+    }
+
+    /**
+     * @return items scheduled and not yet handed out
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    private void place(Node<T> node)
+    {
+        long ticksLeft = node.deadlineTick - currentTick;
+
+        if(ticksLeft <= 0)
+        {
+            due.add(node.item);
+            return;
+        }
+
+        int level = (63 - Long.numberOfLeadingZeros(ticksLeft)) / SLOT_BITS;
+        int slot = (int) ((node.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        node.next = buckets[level][slot];
+        buckets[level][slot] = node;
+    }
+
+    private Node<T> detach(int level)
+    {
+        int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        Node<T> head = buckets[level][slot];
+        buckets[level][slot] = null;
+
+        return head;
+    }
+
+    private static final class Node<T>
+    {
+        private final T item;
+
+        private final long deadlineTick;
+
+        private Node<T> next;
+
+        private Node(T item, long deadlineTick)
+        {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.nk.cars;
+
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * CarsBootTest.java
+ *
+ * <p>
+ * Base of the tests that boot the application. They all share one context and one in-memory database,
+ * so each test creates its own users and cars, with emails and plates no other test uses, and only
+ * asserts on the rows it created.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars
+ * @created Oct 18, 2026
+ */
+@SpringBootTest(classes = CarsMainApplication.class, properties = {
+        "spring.datasource.url=jdbc:hsqldb:mem:cars-boot-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "lease.archive.ended-before=30d",
+        "lease.archive.batch-size=2",
+        "spring.application.security=false",
+        "spring.security.oauth2.client.registration.github.client-id=test",
+        "spring.security.oauth2.client.registration.github.client-secret=test",
+        "spring.security.oauth2.client.registration.google.client-id=test",
+        "spring.security.oauth2.client.registration.google.client-secret=test",
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration"
+})
+@AutoConfigureMockMvc
+public abstract class CarsBootTest {
+
+    @MockitoBean
+    private OAuth2AuthorizedClientService authorizedClientService;
+
+    protected static User newUser(String email, Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+
+    protected static Car newCar(String plate) {
+        Car car = new Car();
+        car.setMake("Hyundai");
+        car.setModel("Creta");
+        car.setYear(2023);
+        car.setLicensePlateNumber(plate);
+        return car;
+    }
+}
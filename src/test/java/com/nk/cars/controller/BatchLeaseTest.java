@@ -0,0 +1,163 @@
+package com.nk.cars.controller;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.dto.LeaseBatchResult;
+import com.nk.cars.dto.LeaseBatchResult.Outcome;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.Status;
+import com.nk.cars.entity.User;
+import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
+import com.nk.cars.service.CarService;
+import com.nk.cars.service.LeaseService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchLeaseTest.java
+ *
+ * <p>
+ * Runs the batch lease start and end against the database, with a mix of items that succeed and items
+ * that are rejected, in both the partial and the all-or-nothing mode.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.controller
+ * @created Oct 18, 2026
+ */
+class BatchLeaseTest extends CarsBootTest {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        owner = userRepository.save(newUser("owner-" + run + "@batch.com", Role.CAR_OWNER));
+        customer = userRepository.save(newUser("customer-" + run + "@batch.com", Role.END_CUSTOMER));
+    }
+
+    @Test
+    void startAndEndLeases_PartialFailureReportedPerItem() {
+        Long first = newCar().getId();
+        Long second = newCar().getId();
+        Long third = newCar().getId();
+
+        List<LeaseBatchResult> started = leaseService.startLeases(List.of(first, first, second, -1L, third), customer, false);
+
+        assertEquals(List.of(Outcome.STARTED, Outcome.REJECTED, Outcome.STARTED, Outcome.REJECTED, Outcome.REJECTED), outcomes(started));
+        assertTrue(started.get(4).getMessage().contains("already leased 2 cars"), started.get(4).getMessage());
+        assertEquals(Status.ON_LEASE, carService.getCarById(first).getStatus());
+        assertEquals(Status.IDLE, carService.getCarById(third).getStatus());
+        assertEquals(2, activeLeaseCount());
+
+        Long firstLease = started.get(0).getLeaseId();
+        Long secondLease = started.get(2).getLeaseId();
+
+        List<LeaseBatchResult> ended = leaseService.endLeases(List.of(firstLease, secondLease, firstLease, -1L), customer, null);
+
+        assertEquals(List.of(Outcome.ENDED, Outcome.ENDED, Outcome.REJECTED, Outcome.REJECTED), outcomes(ended));
+        assertEquals(Status.IDLE, carService.getCarById(first).getStatus());
+        assertEquals(Status.IDLE, carService.getCarById(second).getStatus());
+        assertEquals(State.ENDED, leaseService.getLeaseById(secondLease).getState());
+        assertEquals(0, activeLeaseCount());
+
+        // ended leases are rejected on the next call
+        assertEquals(List.of(Outcome.REJECTED), outcomes(leaseService.endLeases(List.of(firstLease), customer, false)));
+    }
+
+    @Test
+    void startLeases_AllOrNothingAppliesNothingOnRejection() {
+        Long idle = newCar().getId();
+        Long onService = newCar().getId();
+        carService.transitionStatus(onService, Status.IDLE, Status.ON_SERVICE);
+
+        List<LeaseBatchResult> results = leaseService.startLeases(List.of(idle, onService), customer, true);
+
+        assertEquals(List.of(Outcome.ROLLED_BACK, Outcome.REJECTED), outcomes(results));
+        assertEquals(Status.IDLE, carService.getCarById(idle).getStatus());
+        assertEquals(0, activeLeaseCount());
+        assertTrue(leaseRepository.findAllByCustomer(customer).isEmpty());
+
+        // the same batch without the rejected car goes through
+        assertEquals(List.of(Outcome.STARTED), outcomes(leaseService.startLeases(List.of(idle), customer, true)));
+        assertEquals(1, activeLeaseCount());
+    }
+
+    @Test
+    void endLeases_OtherCustomersLeaseRejected() {
+        User other = userRepository.save(newUser("other-" + UUID.randomUUID() + "@batch.com", Role.END_CUSTOMER));
+        Long carId = newCar().getId();
+        Long othersLease = leaseService.startLeases(List.of(carId), other, false).get(0).getLeaseId();
+
+        List<LeaseBatchResult> results = leaseService.endLeases(List.of(othersLease), customer, false);
+
+        assertEquals(List.of(Outcome.REJECTED), outcomes(results));
+        assertTrue(results.get(0).getMessage().contains("not authorized"), results.get(0).getMessage());
+        assertEquals(Status.ON_LEASE, carService.getCarById(carId).getStatus());
+    }
+
+    @Test
+    void endLeases_LoadedEntitiesReadBackAndKeptManaged() {
+        Long carId = newCar().getId();
+        Long leaseId = leaseService.startLeases(List.of(carId), customer, false).get(0).getLeaseId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Lease lease = leaseService.getLeaseById(leaseId);
+            Car car = lease.getCar();
+            User leaseCustomer = userRepository.findById(customer.getUserId()).orElseThrow(); // holds the lease in its eager collection
+
+            assertEquals(List.of(Outcome.ENDED), outcomes(leaseService.endLeases(List.of(leaseId), leaseCustomer, false)));
+
+            assertEquals(State.ENDED, lease.getState());
+            assertEquals(Status.IDLE, car.getStatus());
+            assertTrue(entityManager.contains(lease));
+            assertTrue(entityManager.contains(car));
+            assertTrue(entityManager.contains(leaseCustomer));
+        });
+
+        assertEquals(State.ENDED, leaseService.getLeaseById(leaseId).getState());
+    }
+
+    private int activeLeaseCount() {
+        return userRepository.findActiveLeaseCount(customer.getUserId());
+    }
+
+    private static List<Outcome> outcomes(List<LeaseBatchResult> results) {
+        return results.stream().map(LeaseBatchResult::getOutcome).toList();
+    }
+
+    private Car newCar() {
+        return carService.registerCar(newCar("TN 03 BATCH " + UUID.randomUUID()), owner);
+    }
+}
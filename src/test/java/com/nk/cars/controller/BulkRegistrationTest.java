@@ -0,0 +1,83 @@
+package com.nk.cars.controller;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.config.CarIdSequenceConfig;
+import com.nk.cars.dto.BulkRegistrationResult;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import com.nk.cars.repo.UserRepository;
+import com.nk.cars.service.CarService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BulkRegistrationTest.java
+ *
+ * <p>
+ * Runs bulk registration against the database to check that inserts are really batched
+ * and that sequence ids do not collide with ids issued before the switch from identity.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.controller
+ * @created Oct 18, 2026
+ */
+class BulkRegistrationTest extends CarsBootTest {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CarIdSequenceConfig carIdSequenceConfig;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void registerCars_BatchedInsertsAfterExistingIds() {
+        User owner = new User();
+        owner.setName("Bulk Owner");
+        owner.setEmail("bulk@owner.com");
+        owner.setRole(Role.CAR_OWNER);
+        owner = userRepository.save(owner);
+
+        // a row written by the old identity column, far ahead of the fresh sequence
+        jdbcTemplate.update("insert into car (id, make, model, year, license_plate_number, status, owner_user_id) values (5000, 'Tata', 'Nexon', 2020, 'LEGACY 1', 0, ?)", owner.getUserId());
+        carIdSequenceConfig.alignCarIdSequence();
+
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 120; i++)
+            cars.add(newCar(i == 7 ? "LEGACY 1" : "BULK " + i));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BulkRegistrationResult> results = carService.registerCars(cars, owner);
+
+        assertEquals(BulkRegistrationResult.Outcome.REJECTED, results.get(7).getOutcome());
+        assertEquals(119, results.stream().filter(result -> result.getOutcome() == BulkRegistrationResult.Outcome.REGISTERED).count());
+        // ids cached by earlier registrations in this context come first, the rest are drawn past the legacy row
+        assertTrue(results.get(results.size() - 1).getCarId() > 5000);
+
+        // one duplicate check, a few sequence calls and one statement per insert batch, instead of one per car
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < 15, "bulk registration used " + statements + " statements");
+        assertEquals(119, statistics.getEntityInsertCount());
+    }
+}
@@ -0,0 +1,176 @@
+package com.nk.cars.controller;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.Status;
+import com.nk.cars.entity.User;
+import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
+import com.nk.cars.service.CarService;
+import com.nk.cars.service.LeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeaseContentionTest.java
+ *
+ * <p>
+ * Lets many customers start a lease on the same car at the same moment, against the database,
+ * and checks that exactly one of them gets it while all others get a conflict. Ending the lease
+ * from several threads at once must likewise succeed exactly once, and one customer starting
+ * many leases at once must stop at the lease limit.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.controller
+ * @created Oct 18, 2026
+ */
+class LeaseContentionTest extends CarsBootTest {
+
+    private static final int ROUNDS = 10;
+
+    private static final int CONTENDERS = 32;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startThreads() {
+        executor = Executors.newFixedThreadPool(CONTENDERS);
+    }
+
+    @AfterEach
+    void stopThreads() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void startLease_ExactlyOneWinnerPerCar() throws Exception {
+        User owner = userRepository.save(newUser("owner@contention.com", Role.CAR_OWNER));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Car car = carService.registerCar(newCar("TN 01 RACE " + round), owner);
+
+            List<User> customers = new ArrayList<>();
+            for (int i = 0; i < CONTENDERS; i++)
+                customers.add(userRepository.save(newUser("customer" + round + "-" + i + "@contention.com", Role.END_CUSTOMER)));
+
+            List<Boolean> outcomes = race(customers.stream().<Callable<Boolean>>map(customer -> () -> won(() -> leaseService.startLease(car.getId(), customer))).toList());
+
+            assertEquals(1, outcomes.stream().filter(Boolean::booleanValue).count(), "winners for car " + car.getId());
+            assertEquals(Status.ON_LEASE, carService.getCarById(car.getId()).getStatus());
+
+            List<Lease> leases = leaseRepository.findAll().stream().filter(lease -> lease.getCar().getId().equals(car.getId())).toList();
+            assertEquals(1, leases.size(), "leases for car " + car.getId());
+
+            // the winner ends the lease from several devices at once
+            Lease lease = leases.get(0);
+            User winner = lease.getCustomer();
+            List<Boolean> ends = race(customers.stream().limit(8).<Callable<Boolean>>map(ignored -> () -> won(() -> leaseService.endLease(lease.getId(), winner))).toList());
+
+            assertEquals(1, ends.stream().filter(Boolean::booleanValue).count(), "ends of lease " + lease.getId());
+            assertEquals(Status.IDLE, carService.getCarById(car.getId()).getStatus());
+            assertEquals(State.ENDED, leaseService.getLeaseById(lease.getId()).getState());
+        }
+    }
+
+    @Test
+    void startLease_ConcurrentStartsBySameCustomerStopAtLimit() throws Exception {
+        User owner = userRepository.save(newUser("owner@limit.com", Role.CAR_OWNER));
+        User customer = userRepository.save(newUser("customer@limit.com", Role.END_CUSTOMER));
+
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            cars.add(carService.registerCar(newCar("TN 02 LIMIT " + i), owner));
+
+        List<Boolean> outcomes = race(cars.stream().<Callable<Boolean>>map(car -> () -> withinLimit(() -> leaseService.startLease(car.getId(), customer))).toList());
+
+        assertEquals(2, outcomes.stream().filter(Boolean::booleanValue).count());
+        assertEquals(2, userRepository.findById(customer.getUserId()).orElseThrow().getActiveLeaseCount());
+
+        // ending one frees a slot for the next start
+        Lease active = leaseRepository.findAllByCustomer(customer).get(0);
+        leaseService.endLease(active.getId(), customer);
+        assertEquals(1, userRepository.findById(customer.getUserId()).orElseThrow().getActiveLeaseCount());
+
+        // a counter that drifted from the lease table is recounted
+        jdbcTemplate.update("update user set active_lease_count = 0 where user_id = ?", customer.getUserId());
+
+        assertEquals(1, userRepository.reconcileActiveLeaseCounts());
+        assertEquals(1, userRepository.findById(customer.getUserId()).orElseThrow().getActiveLeaseCount());
+    }
+
+    // runs all tasks released at the same instant, any failure other than a conflict fails the test
+    private List<Boolean> race(List<Callable<Boolean>> tasks) throws Exception {
+        CountDownLatch ready = new CountDownLatch(tasks.size());
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return task.call();
+            }));
+        }
+
+        ready.await();
+        go.countDown();
+
+        List<Boolean> outcomes = new ArrayList<>();
+        for (Future<Boolean> future : futures)
+            outcomes.add(future.get());
+        return outcomes;
+    }
+
+    private static boolean won(Runnable action) {
+        try {
+            action.run();
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private static boolean withinLimit(Runnable action) {
+        try {
+            action.run();
+            return true;
+        } catch (ActionNotAllowedException e) {
+            assertFalse(e instanceof ConflictException, "every car is free, only the limit may refuse");
+            return false;
+        }
+    }
+}
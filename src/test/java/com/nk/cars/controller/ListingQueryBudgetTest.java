@@ -0,0 +1,278 @@
+package com.nk.cars.controller;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.Status;
+import com.nk.cars.entity.User;
+import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
+import com.nk.cars.service.CarService;
+import com.nk.cars.service.FleetIndex;
+import com.nk.cars.service.LeaseService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ListingQueryBudgetTest.java
+ *
+ * <p>
+ * Serializes every listing endpoint over a fleet where each car has several leases and fails
+ * if a response needs more statements than its budget, which catches lazy loads per row.
+ * The NDJSON exports must read one query per chunk and table, the search is served from the fleet index,
+ * and a poll with the current ETag is answered with 304 without any query.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.controller
+ * @created Oct 18, 2026
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingQueryBudgetTest extends CarsBootTest {
+
+    private static final int CARS = 6;
+
+    private static final int LEASES_PER_CAR = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    private User owner;
+
+    private User customer;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void seedFleet() {
+        owner = userRepository.save(newUser("owner@budget.com", Role.CAR_OWNER));
+        customer = userRepository.save(newUser("customer@budget.com", Role.END_CUSTOMER));
+
+        for (int i = 0; i < CARS; i++) {
+            Car car = new Car();
+            car.setMake("Mahindra");
+            car.setModel("Thar");
+            car.setYear(2022);
+            car.setLicensePlateNumber("TN 72 BG " + i);
+            car.setOwner(owner);
+            car = carService.saveCar(car);
+
+            for (int j = 0; j < LEASES_PER_CAR; j++) {
+                Lease lease = new Lease();
+                lease.setCar(car);
+                lease.setCustomer(customer);
+                lease.setStartDate(LocalDateTime.now());
+                lease.setEndDate(LocalDateTime.now());
+                leaseRepository.save(lease);
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllCars_WithinBudget() throws Exception {
+        assertWithinBudget("/cars/getAllCars", admin(), 3); // page + lease ids from the lease table and the archive
+        assertWithinBudget("/cars/getAllCars?includeTotal=true", admin(), 4);
+    }
+
+    @Test
+    void getCarsByOwner_WithinBudget() throws Exception {
+        assertWithinBudget("/cars/getCarsByOwner", principalOf(owner), 3);
+    }
+
+    @Test
+    void availabilityListings_WithinBudget() throws Exception {
+        // served from the fleet index, only the lease ids of the page are queried
+        assertWithinBudget("/cars/getAvailableCars?includeTotal=true", principalOf(customer), 2);
+        assertWithinBudget("/cars/getLeasedCars?includeTotal=true", principalOf(customer), 2);
+    }
+
+    @Test
+    void getAllHistory_WithinBudget() throws Exception {
+        assertWithinBudget("/lease/getAllHistory", admin(), 2); // lease table and archive
+        assertWithinBudget("/lease/getAllHistory", principalOf(customer), 2);
+    }
+
+    @Test
+    void history_WithinBudget() throws Exception {
+        assertWithinBudget("/lease/history?size=5", admin(), 2); // lease and archive pages
+        assertWithinBudget("/lease/history?state=ENDED&startedFrom=2020-01-01T00:00:00&includeTotal=true", principalOf(customer), 4);
+        assertWithinBudget("/lease/history?state=ACTIVE&includeTotal=true", principalOf(customer), 2); // active leases are never archived
+    }
+
+    @Test
+    void history_PagesCoverEveryLeaseOnceNewestFirst() {
+        LeaseHistoryCriteria criteria = new LeaseHistoryCriteria(null, null, null, null, State.ENDED);
+
+        List<LeaseSummary> walked = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            // many leases share a start date, so pages have to break ties on the id
+            CursorPage<LeaseSummary> page = leaseService.getLeaseHistory(principalOf(customer), criteria, cursor, 4, true);
+            assertEquals(CARS * LEASES_PER_CAR, page.getTotalCount());
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = leaseRepository.findAllByCustomer(customer).stream()
+                .sorted(Comparator.comparing(Lease::getStartDate).thenComparing(Lease::getId).reversed())
+                .map(Lease::getId).toList();
+        assertEquals(expected, walked.stream().map(LeaseSummary::getId).toList());
+
+        LeaseHistoryCriteria future = new LeaseHistoryCriteria(LocalDateTime.now().plusDays(1), null, null, null, null);
+        assertTrue(leaseService.getLeaseHistory(admin(), future, null, null, false).getItems().isEmpty());
+    }
+
+    @Test
+    void search_ServedFromIndexWithoutQueries() throws Exception {
+        assertWithinBudget("/cars/search?make=Mahindra&yearFrom=2020&status=IDLE", principalOf(customer), 0);
+    }
+
+    @Test
+    void search_DatabaseAgreesWithIndex() {
+        CarSearchCriteria criteria = new CarSearchCriteria("Mahindra", "Thar", 2020, 2022, Status.IDLE);
+
+        assertEquals(fleetIndex.search(criteria, 0L, 4), carRepository.search(criteria, 0L, 4));
+
+        CarFacets fromIndex = fleetIndex.facets(criteria);
+        CarFacets fromDatabase = carRepository.facets(criteria);
+        assertEquals(CARS, fromDatabase.getTotal());
+        assertEquals(fromIndex.getMake(), fromDatabase.getMake());
+        assertEquals(fromIndex.getYear(), fromDatabase.getYear());
+        assertEquals(fromIndex.getTotal(), fromDatabase.getTotal());
+    }
+
+    @Test
+    void unchangedPoll_NotModifiedWithoutQueries() throws Exception {
+        String url = "/cars/getAllCars";
+
+        String eTag = mockMvc.perform(get(url).sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContextOf(admin())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContextOf(admin())))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // saving a car, even unchanged, moves the fleet version on
+        carService.saveCar(carRepository.findAll().get(0));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContextOf(admin())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void exports_StreamOneLinePerRowInChunks() throws Exception {
+        // other tests share the database, only the rows seeded here are counted
+        assertEquals(CARS, Arrays.stream(exportLines("/cars/export", 1)).filter(line -> line.contains(owner.getName())).count());
+        assertEquals(CARS * LEASES_PER_CAR, Arrays.stream(exportLines("/lease/export", 2)).filter(line -> line.contains(customer.getEmail())).count()); // lease table and archive
+    }
+
+    private void assertWithinBudget(String url, UserPrincipal principal, long budget) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(url).sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContextOf(principal)))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget, url + " used " + statements + " statements, budget is " + budget);
+    }
+
+    private String[] exportLines(String url, long queries) throws Exception {
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(get(url).sessionAttr(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, securityContextOf(admin())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(queries, statistics.getPrepareStatementCount(), url + " should read all rows, a chunk at a time, with " + queries + " queries");
+        assertTrue(body.endsWith("\n"));
+        return body.split("\n");
+    }
+
+    private static SecurityContextImpl securityContextOf(UserPrincipal principal) {
+        return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static UserPrincipal admin() {
+        return new UserPrincipal(0L, "admin@budget.com", Role.ADMIN);
+    }
+
+    private static UserPrincipal principalOf(User user) {
+        return new UserPrincipal(user.getUserId(), user.getEmail(), user.getRole());
+    }
+}
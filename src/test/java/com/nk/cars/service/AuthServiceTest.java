@@ -0,0 +1,96 @@
+package com.nk.cars.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.nk.cars.config.JwtKeyRegistry;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuthServiceTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class AuthServiceTest {
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId(3L);
+        testUser.setEmail("customer@mail.com");
+        testUser.setRole(Role.END_CUSTOMER);
+    }
+
+    @Test
+    void generateToken_SignedWithActiveKey() {
+        AuthService authService = authServiceWith(new JwtKeyRegistry(Map.of("k1", "old-secret", "k2", "new-secret"), "k2", "k1"));
+
+        String token = authService.generateToken(testUser);
+
+        assertEquals("k2", JWT.decode(token).getKeyId());
+        UserPrincipal principal = authService.extractPrincipal(token);
+        assertEquals(3L, principal.getUserId());
+        assertEquals(Role.END_CUSTOMER, principal.getRole());
+    }
+
+    @Test
+    void rotation_OldTokensValidWhileOldKeyListed() {
+        AuthService before = authServiceWith(new JwtKeyRegistry(Map.of("k1", "old-secret"), "k1", "k1"));
+        String oldToken = before.generateToken(testUser);
+
+        AuthService rotated = authServiceWith(new JwtKeyRegistry(Map.of("k1", "old-secret", "k2", "new-secret"), "k2", "k1"));
+        assertEquals("customer@mail.com", rotated.extractUsername(oldToken));
+
+        AuthService retired = authServiceWith(new JwtKeyRegistry(Map.of("k2", "new-secret"), "k2", null));
+        assertThrows(JWTVerificationException.class, () -> retired.extractUsername(oldToken));
+    }
+
+    @Test
+    void tokenWithoutKeyId_VerifiedWithLegacyKey() {
+        String legacyToken = JWT.create()
+                .withSubject("customer@mail.com")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(Algorithm.HMAC256("old-secret"));
+
+        AuthService authService = authServiceWith(new JwtKeyRegistry(Map.of("k1", "old-secret", "k2", "new-secret"), "k2", "k1"));
+
+        assertEquals("customer@mail.com", authService.extractUsername(legacyToken));
+    }
+
+    @Test
+    void tokenSignedWithWrongSecret_Rejected() {
+        String forged = JWT.create()
+                .withKeyId("k1")
+                .withSubject("admin@email.com")
+                .sign(Algorithm.HMAC256("guessed"));
+
+        AuthService authService = authServiceWith(new JwtKeyRegistry(Map.of("k1", "old-secret"), "k1", "k1"));
+
+        assertThrows(JWTVerificationException.class, () -> authService.extractUsername(forged));
+    }
+
+    @Test
+    void registry_ActiveKeyMustBeConfigured() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtKeyRegistry(Map.of("k1", "secret"), "k2", "k1"));
+    }
+
+    private static AuthService authServiceWith(JwtKeyRegistry registry) {
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "jwtKeyRegistry", registry);
+        return authService;
+    }
+}
@@ -0,0 +1,127 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarHold;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.Status;
+import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CarHoldsTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class CarHoldsTest {
+
+    private CarHolds carHolds;
+
+    private FleetIndex fleetIndex;
+
+    private FleetVersion fleetVersion;
+
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        fleetVersion = new FleetVersion();
+        userRepository = mock(UserRepository.class); // no active leases unless stubbed
+
+        fleetIndex = new FleetIndex(fleetVersion);
+        fleetIndex.apply(car(1L, Status.IDLE));
+        fleetIndex.apply(car(2L, Status.IDLE));
+        fleetIndex.apply(car(3L, Status.ON_LEASE));
+        ReflectionTestUtils.setField(fleetIndex, "ready", true);
+
+        carHolds = new CarHolds();
+        ReflectionTestUtils.setField(carHolds, "fleetIndex", fleetIndex);
+        ReflectionTestUtils.setField(carHolds, "fleetVersion", fleetVersion);
+        ReflectionTestUtils.setField(carHolds, "userRepository", userRepository);
+        ReflectionTestUtils.setField(carHolds, "defaultDuration", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(carHolds, "maxDuration", Duration.ofMinutes(10));
+        carHolds.startReaper();
+    }
+
+    @AfterEach
+    void tearDown() {
+        carHolds.stopReaper();
+    }
+
+    @Test
+    void hold_OnlyOneCustomerAtATime() {
+        CarHold hold = carHolds.hold(1L, 10L, Role.END_CUSTOMER, 30);
+        assertEquals(10L, hold.getCustomerId());
+        assertThrows(ConflictException.class, () -> carHolds.hold(1L, 11L, Role.END_CUSTOMER, 30));
+        assertTrue(carHolds.isHeldByOther(1L, 11L));
+        assertFalse(carHolds.isHeldByOther(1L, 10L));
+
+        // renewing your own hold is fine, and the available listing leaves the car out
+        carHolds.hold(1L, 10L, Role.END_CUSTOMER, 30);
+        assertEquals(List.of(2L), fleetIndex.page(Status.IDLE, 0L, 10, car -> !carHolds.isHeld(car.getId())).stream().map(CarSummary::getId).toList());
+        assertEquals(1, carHolds.countHeld(Status.IDLE));
+
+        assertFalse(carHolds.release(1L, 11L));
+        assertTrue(carHolds.release(1L, 10L));
+        assertNotNull(carHolds.hold(1L, 11L, Role.END_CUSTOMER, 30));
+    }
+
+    @Test
+    void hold_CappedByLeasesTheCustomerMayStillStart() {
+        when(userRepository.findActiveLeaseCount(10L)).thenReturn(1); // one more lease allowed, so one hold
+
+        carHolds.hold(1L, 10L, Role.END_CUSTOMER, 30);
+        ConflictException exception = assertThrows(ConflictException.class, () -> carHolds.hold(2L, 10L, Role.END_CUSTOMER, 30));
+        assertTrue(exception.getMessage().contains("holds 1 cars and may lease 1 more"), exception.getMessage());
+        assertFalse(carHolds.isHeld(2L));
+
+        // renewing the held car stays within the cap, and a released hold frees its place
+        assertNotNull(carHolds.hold(1L, 10L, Role.END_CUSTOMER, 30));
+        assertTrue(carHolds.release(1L, 10L));
+        assertNotNull(carHolds.hold(2L, 10L, Role.END_CUSTOMER, 30));
+
+        // a customer at the lease limit holds nothing
+        when(userRepository.findActiveLeaseCount(11L)).thenReturn(2);
+        assertThrows(ConflictException.class, () -> carHolds.hold(1L, 11L, Role.END_CUSTOMER, 30));
+    }
+
+    @Test
+    void hold_OnlyIdleCarsAndOnlyByCustomers() {
+        assertThrows(ConflictException.class, () -> carHolds.hold(3L, 10L, Role.END_CUSTOMER, null));
+        assertThrows(ActionNotAllowedException.class, () -> carHolds.hold(1L, 12L, Role.CAR_OWNER, null));
+    }
+
+    @Test
+    void expiredHold_FreesCarAndIsReaped() throws Exception {
+        ReflectionTestUtils.setField(carHolds, "defaultDuration", Duration.ofMillis(50));
+        long version = fleetVersion.current();
+
+        carHolds.hold(2L, 10L, Role.END_CUSTOMER, null);
+        assertTrue(carHolds.isHeld(2L));
+
+        Thread.sleep(60);
+        assertFalse(carHolds.isHeld(2L)); // free at its expiry, whether reaped yet or not
+        assertNotNull(carHolds.hold(2L, 11L, Role.END_CUSTOMER, 1));
+
+        for (int attempt = 0; attempt < 100 && carHolds.size() > 0; attempt++)
+            Thread.sleep(20);
+        assertEquals(0, carHolds.size());
+        assertTrue(fleetVersion.current() >= version + 3, "granting and expiring holds changes the listings");
+    }
+
+    private static CarSummary car(Long id, Status status) {
+        return new CarSummary(id, "Kia", "Seltos", 2024, "TN 09 HOLD " + id, status, "owner@mail.com", 0L);
+    }
+}
@@ -1,19 +1,38 @@
 package com.nk.cars.service;
 
+import com.nk.cars.dto.BulkRegistrationResult;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.dto.CarView;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.UserPrincipal;
 import com.nk.cars.entity.Car;
 import com.nk.cars.entity.Role;
 import com.nk.cars.entity.Status;
 import com.nk.cars.entity.User;
+import com.nk.cars.event.CarChangedEvent;
 import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.exception.FieldMissingException;
 import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.LeaseRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
+import static com.nk.cars.dto.BulkRegistrationResult.Outcome.REGISTERED;
+import static com.nk.cars.dto.BulkRegistrationResult.Outcome.REJECTED;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +51,21 @@ public class CarServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    @Mock
+    private FleetIndex fleetIndex;
+
+    @Mock
+    private CarHolds carHolds;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     @Mock
     private Car testCar;
 
@@ -41,6 +75,9 @@ public class CarServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(carService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(carService, "maxPageSize", 500);
+        ReflectionTestUtils.setField(carService, "maxBulkSize", 10);
     }
 
     @Test
@@ -72,7 +109,7 @@ public class CarServiceTest {
     void updateCarStatus_Success()
     {
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
-        when(carRepository.save(any(Car.class))).thenAnswer(invocation -> invocation.getArgument(0)); // Mock save to return the updated object
+        when(carRepository.updateStatusIf(1L, Status.IDLE, Status.ON_SERVICE)).thenReturn(1);
         when(testOwner.getUserId()).thenReturn(1L);
         when(testCar.getOwner()).thenReturn(testOwner);
         when(testCar.getStatus()).thenReturn(Status.IDLE);
@@ -82,6 +119,191 @@ public class CarServiceTest {
         when(testCar.getStatus()).thenReturn(Status.ON_SERVICE);
 
         assertEquals(Status.ON_SERVICE, updatedCar.getStatus());
-        verify(carRepository, times(1)).save(testCar);
+        verify(carRepository, times(1)).updateStatusIf(1L, Status.IDLE, Status.ON_SERVICE);
+        verify(entityManager, times(1)).refresh(testCar); // loaded before the update, so stale after it
+        verify(carRepository, never()).save(any(Car.class));
+    }
+
+    @Test
+    void transitionStatus_LostRaceIsConflict()
+    {
+        when(carRepository.updateStatusIf(1L, Status.IDLE, Status.ON_LEASE)).thenReturn(0);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(testCar.getStatus()).thenReturn(Status.ON_LEASE);
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> carService.transitionStatus(1L, Status.IDLE, Status.ON_LEASE));
+
+        assertEquals("Car with ID 1 is no longer IDLE. Current status : ON_LEASE", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void getAvailableCars_PageFilteredByDatabase()
+    {
+        when(carRepository.findSummaryPageByStatus(Status.IDLE, 0L, Limit.of(3)))
+                .thenReturn(List.of(summaryWithId(1L), summaryWithId(2L), summaryWithId(5L)));
+
+        CursorPage<CarView> page = carService.getAvailableCars(null, 2, false);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(CursorPage.encodeCursor(2L), page.getNextCursor());
+        assertNull(page.getTotalCount());
+        verify(carRepository, never()).findAll();
+        verify(carRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    void getAvailableCars_ServedFromFleetIndexOnceReady()
+    {
+        CarSummary idleCar = summaryWithId(4L);
+        when(fleetIndex.isReady()).thenReturn(true);
+        when(fleetIndex.page(eq(Status.IDLE), eq(0L), eq(51), any())).thenReturn(List.of(idleCar));
+        when(fleetIndex.count(Status.IDLE)).thenReturn(1);
+        when(leaseRepository.findLeaseIdsByCarIds(List.of(4L))).thenReturn(List.of(leaseOf(4L, 12L)));
+
+        CursorPage<CarView> page = carService.getAvailableCars(null, null, true);
+
+        assertEquals(4L, page.getItems().get(0).getId());
+        assertEquals(List.of(12L), page.getItems().get(0).getLeaseIds());
+        assertEquals(1L, page.getTotalCount());
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    void saveCar_PublishesChangedState()
+    {
+        Car car = carWithId(3L);
+        car.setStatus(Status.ON_SERVICE);
+        when(carRepository.save(car)).thenReturn(car);
+
+        carService.saveCar(car);
+
+        ArgumentCaptor<CarChangedEvent> event = ArgumentCaptor.forClass(CarChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(3L, event.getValue().getCar().getId());
+        assertEquals(Status.ON_SERVICE, event.getValue().getCar().getStatus());
+    }
+
+    @Test
+    void getLeasedCars_ResumesAfterCursorAndCounts()
+    {
+        when(carRepository.findSummaryPageByStatus(Status.ON_LEASE, 2L, Limit.of(51)))
+                .thenReturn(List.of(summaryWithId(5L)));
+        when(carRepository.countByStatus(Status.ON_LEASE)).thenReturn(3L);
+
+        CursorPage<CarView> page = carService.getLeasedCars(CursorPage.encodeCursor(2L), null, true);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(3L, page.getTotalCount());
+    }
+
+    @Test
+    void getAllCars_InvalidCursorRejected()
+    {
+        assertThrows(FieldMissingException.class, () -> carService.getAllCars("not-a-cursor", null, false));
+        assertThrows(FieldMissingException.class, () -> carService.getAllCars(null, 0, false));
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    void getAllCarsByOwner_LeaseIdsLoadedInOneQuery()
+    {
+        when(carRepository.findSummariesByOwnerId(7L)).thenReturn(List.of(summaryWithId(1L), summaryWithId(2L)));
+        when(leaseRepository.findLeaseIdsByCarIds(List.of(1L, 2L))).thenReturn(List.of(leaseOf(1L, 10L), leaseOf(1L, 11L)));
+
+        List<CarView> cars = carService.getAllCarsByOwner(new UserPrincipal(7L, "owner@mail.com", Role.CAR_OWNER));
+
+        assertEquals(List.of(10L, 11L), cars.get(0).getLeaseIds());
+        assertEquals(List.of(), cars.get(1).getLeaseIds());
+        verify(leaseRepository, times(1)).findLeaseIdsByCarIds(any());
+    }
+
+    @Test
+    void getAllCars_PageOfViews()
+    {
+        when(carRepository.findSummaryPage(0L, Limit.of(2))).thenReturn(List.of(summaryWithId(1L), summaryWithId(2L)));
+        when(leaseRepository.findLeaseIdsByCarIds(List.of(1L))).thenReturn(List.of());
+
+        CursorPage<CarView> page = carService.getAllCars(null, 1, false);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(CursorPage.encodeCursor(1L), page.getNextCursor());
+    }
+
+    @Test
+    void getAllCarsByOwner_CustomerNotAllowed()
+    {
+        UserPrincipal customer = new UserPrincipal(8L, "customer@mail.com", Role.END_CUSTOMER);
+
+        assertThrows(ActionNotAllowedException.class, () -> carService.getAllCarsByOwner(customer));
+        verifyNoInteractions(carRepository, leaseRepository);
+    }
+
+    @Test
+    void registerCars_PerRowResultsWithOneDuplicateQuery()
+    {
+        when(testOwner.getRole()).thenReturn(Role.CAR_OWNER);
+        when(carRepository.findRegisteredLicensePlates(any())).thenReturn(Set.of("TN 01"));
+        when(carRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Car> cars = invocation.getArgument(0);
+            cars.forEach(car -> car.setId(100L + cars.indexOf(car)));
+            return cars;
+        });
+
+        List<Car> cars = List.of(newCar("TN 01"), newCar("TN 02"), newCar(null), newCar("TN 02"), newCar("TN 03"));
+
+        List<BulkRegistrationResult> results = carService.registerCars(cars, testOwner);
+
+        assertEquals(List.of(REJECTED, REGISTERED, REJECTED, REJECTED, REGISTERED),
+                results.stream().map(BulkRegistrationResult::getOutcome).toList());
+        assertEquals(100L, results.get(1).getCarId());
+        assertEquals(101L, results.get(4).getCarId());
+        assertEquals("Field 'carnumber' is required!", results.get(2).getMessage());
+        verify(carRepository, times(1)).findRegisteredLicensePlates(any());
+        verify(carRepository, never()).existsCarByLicensePlateNumber(any());
+        verify(eventPublisher, times(2)).publishEvent(any(CarChangedEvent.class));
+    }
+
+    @Test
+    void registerCars_OversizedBatchRejected()
+    {
+        when(testOwner.getRole()).thenReturn(Role.CAR_OWNER);
+        List<Car> cars = IntStream.range(0, 11).mapToObj(i -> newCar("TN " + i)).toList();
+
+        assertThrows(FieldMissingException.class, () -> carService.registerCars(cars, testOwner));
+        verifyNoInteractions(carRepository);
+    }
+
+    private static Car newCar(String licensePlateNumber)
+    {
+        Car car = new Car();
+        car.setMake("Mahindra");
+        car.setModel("Thar");
+        car.setYear(2022);
+        car.setLicensePlateNumber(licensePlateNumber);
+        return car;
+    }
+
+    private static Car carWithId(Long id)
+    {
+        Car car = new Car();
+        car.setId(id);
+        return car;
+    }
+
+    private static CarSummary summaryWithId(Long id)
+    {
+        return CarSummary.from(carWithId(id));
+    }
+
+    private static LeaseRepository.CarLeaseId leaseOf(Long carId, Long leaseId)
+    {
+        return new LeaseRepository.CarLeaseId()
+        {
+            public Long getCarId() { return carId; }
+
+            public Long getLeaseId() { return leaseId; }
+        };
     }
 }
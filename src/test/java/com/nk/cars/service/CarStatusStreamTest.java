@@ -0,0 +1,108 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Status;
+import com.nk.cars.event.CarStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CarStatusStreamTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class CarStatusStreamTest {
+
+    private CarStatusStream carStatusStream;
+
+    @BeforeEach
+    void setUp() {
+        carStatusStream = new CarStatusStream();
+        ReflectionTestUtils.setField(carStatusStream, "bufferSize", 2);
+        ReflectionTestUtils.setField(carStatusStream, "heartbeatInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(carStatusStream, "timeout", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void subscriber_ReceivesOnlyMatchingCarsAndHeartbeats() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        carStatusStream.register(emitter, "Tata", null);
+
+        carStatusStream.onCarStatusChanged(changed(1L, "Mahindra"));
+        carStatusStream.onCarStatusChanged(changed(2L, "Tata"));
+
+        assertTrue(emitter.next().contains("subscribed"));
+        String event = emitter.next();
+        assertTrue(event.contains("event:car-status") && event.contains("car:2"), event);
+        assertTrue(emitter.next().contains("heartbeat"));
+    }
+
+    @Test
+    void slowSubscriber_DisconnectedWithoutBlockingPublisher() {
+        CountDownLatch stuck = new CountDownLatch(1);
+        carStatusStream.register(new RecordingEmitter(stuck), null, null); // never gets past its first write
+        carStatusStream.register(new RecordingEmitter(null), "Mahindra", null);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        carStatusStream.bindTo(registry);
+
+        for (long id = 1; id <= 3; id++)
+            carStatusStream.onCarStatusChanged(changed(id, "Tata"));
+
+        // the other subscriber is not interested in any of them, so only the stuck one overflows
+        assertEquals(1, carStatusStream.subscriberCount());
+        assertEquals(1, registry.get("cars.events.slow.disconnects").functionCounter().count());
+        stuck.countDown();
+    }
+
+    private static CarStatusChangedEvent changed(Long id, String make) {
+        return new CarStatusChangedEvent(new CarSummary(id, make, "Nexon", 2022, "TN 72 NR " + id, Status.ON_LEASE, "owner@mail.com", 0L), Status.IDLE);
+    }
+
+    // records every event as its wire format, optionally blocking the writer like a client that stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch blockUntil;
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            StringBuilder wire = new StringBuilder();
+            builder.build().forEach(part -> wire.append(part.getData() instanceof CarStatusChangedEvent event
+                    ? "car:" + event.getCar().getId() : part.getData()));
+            sent.add(wire.toString());
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "nothing was sent");
+            return event;
+        }
+    }
+}
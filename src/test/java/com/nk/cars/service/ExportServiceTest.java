@@ -0,0 +1,114 @@
+package com.nk.cars.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.Status;
+import com.nk.cars.repo.CarRepository;
+import com.nk.cars.repo.LeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ExportServiceTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class ExportServiceTest {
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void exportFleet_OneObjectPerLine() throws Exception {
+        when(carRepository.findSummaryPage(0L, Limit.of(ExportService.CHUNK_SIZE))).thenReturn(List.of(car(1L), car(2L)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = exportService.exportFleet(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("TN 72 NR 2", objectMapper.readTree(lines[1]).get("carnumber").asText());
+        verify(carRepository, times(1)).findSummaryPage(any(), any()); // a short chunk is the last one
+    }
+
+    @Test
+    void exportFleet_ChunkWrittenBeforeNextIsRead() throws Exception {
+        List<CarSummary> firstChunk = LongStream.rangeClosed(1, ExportService.CHUNK_SIZE).mapToObj(ExportServiceTest::car).toList();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AtomicInteger writtenBeforeSecondChunk = new AtomicInteger();
+
+        when(carRepository.findSummaryPage(0L, Limit.of(ExportService.CHUNK_SIZE))).thenReturn(firstChunk);
+        when(carRepository.findSummaryPage((long) ExportService.CHUNK_SIZE, Limit.of(ExportService.CHUNK_SIZE))).thenAnswer(invocation -> {
+            writtenBeforeSecondChunk.set(output.toString(StandardCharsets.UTF_8).split("\n").length);
+            return List.of(car(ExportService.CHUNK_SIZE + 1L));
+        });
+
+        assertEquals(ExportService.CHUNK_SIZE + 1, exportService.exportFleet(output));
+        assertEquals(ExportService.CHUNK_SIZE, writtenBeforeSecondChunk.get());
+        verify(carRepository, times(2)).findSummaryPage(any(), any());
+    }
+
+    @Test
+    void exportLeaseHistory_LeaseTableThenArchive() throws Exception {
+        when(leaseRepository.findSummaryPage(0L, Limit.of(ExportService.CHUNK_SIZE))).thenReturn(List.of(lease(7L)));
+        when(leaseRepository.findArchivedSummaryPage(0L, Limit.of(ExportService.CHUNK_SIZE))).thenReturn(List.of(lease(2L)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportLeaseHistory(output));
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(7L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void exportFleet_EmptyFleetWritesNothing() throws Exception {
+        when(carRepository.findSummaryPage(0L, Limit.of(ExportService.CHUNK_SIZE))).thenReturn(List.of());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportFleet(output));
+        assertEquals(0, output.size());
+    }
+
+    private static CarSummary car(Long id) {
+        return new CarSummary(id, "Mahindra", "Thar", 2022, "TN 72 NR " + id, Status.IDLE, "owner@mail.com", 0L);
+    }
+
+    private static LeaseSummary lease(Long id) {
+        return new LeaseSummary(id, null, null, State.ENDED, "customer@mail.com", "Mahindra Thar");
+    }
+}
@@ -0,0 +1,198 @@
+package com.nk.cars.service;
+
+import com.nk.cars.dto.CarFacets;
+import com.nk.cars.dto.CarSearchCriteria;
+import com.nk.cars.dto.CarSummary;
+import com.nk.cars.entity.Status;
+import com.nk.cars.event.CarChangedEvent;
+import com.nk.cars.event.CarStatusChangedEvent;
+import com.nk.cars.exception.FieldMissingException;
+import com.nk.cars.repo.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FleetIndexTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class FleetIndexTest {
+
+    private FleetIndex fleetIndex;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Spy
+    private FleetVersion fleetVersion = new FleetVersion();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        fleetIndex = new FleetIndex(fleetVersion);
+        ReflectionTestUtils.setField(fleetIndex, "carRepository", carRepository);
+        ReflectionTestUtils.setField(fleetIndex, "eventPublisher", eventPublisher);
+    }
+
+    @Test
+    void rebuild_LoadsFleetByStatus() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(3L, Status.IDLE), car(1L, Status.IDLE), car(2L, Status.ON_LEASE)));
+
+        assertFalse(fleetIndex.isReady());
+        fleetIndex.rebuild();
+
+        assertTrue(fleetIndex.isReady());
+        assertEquals(List.of(1L, 3L), ids(fleetIndex.page(Status.IDLE, 0L, 10)));
+        assertEquals(List.of(3L), ids(fleetIndex.page(Status.IDLE, 1L, 10)));
+        assertEquals(1, fleetIndex.count(Status.ON_LEASE));
+    }
+
+    @Test
+    void carChanged_MovesCarBetweenStatuses() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, Status.IDLE), car(2L, Status.IDLE)));
+        fleetIndex.rebuild();
+
+        String eTag = fleetVersion.eTag();
+
+        fleetIndex.onCarChanged(new CarChangedEvent(car(1L, Status.ON_LEASE)));
+        fleetIndex.onCarChanged(new CarChangedEvent(car(5L, Status.IDLE)));
+
+        assertNotEquals(eTag, fleetVersion.eTag());
+        assertEquals(3, fleetVersion.current()); // rebuild and two changes
+
+        // saved again without a status change, nothing to tell the status stream
+        fleetIndex.onCarChanged(new CarChangedEvent(car(5L, Status.IDLE)));
+
+        ArgumentCaptor<CarStatusChangedEvent> published = ArgumentCaptor.forClass(CarStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(published.capture());
+        assertEquals(Status.IDLE, published.getAllValues().get(0).getPreviousStatus());
+        assertNull(published.getAllValues().get(1).getPreviousStatus());
+
+        assertEquals(List.of(2L, 5L), ids(fleetIndex.page(Status.IDLE, 0L, 10)));
+        assertEquals(List.of(1L), ids(fleetIndex.page(Status.ON_LEASE, 0L, 10)));
+        assertEquals(2, fleetIndex.count(Status.IDLE));
+        assertEquals(3, fleetIndex.size());
+    }
+
+    @Test
+    void carChanged_OlderVersionIgnored() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, Status.IDLE, 0L)));
+        fleetIndex.rebuild();
+
+        // the lease start commits after the lease end but its event is handled last
+        fleetIndex.onCarChanged(new CarChangedEvent(car(1L, Status.IDLE, 2L)));
+        fleetIndex.onCarChanged(new CarChangedEvent(car(1L, Status.ON_LEASE, 1L)));
+
+        assertEquals(Status.IDLE, fleetIndex.get(1L).getStatus());
+        assertEquals(2L, fleetIndex.get(1L).getVersion());
+        assertEquals(1, fleetIndex.count(Status.IDLE));
+        assertEquals(0, fleetIndex.count(Status.ON_LEASE));
+        assertEquals(2, fleetVersion.current()); // rebuild and the newer change
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void verifyConsistency_RebuildsOnlyWhenDrifted() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, Status.IDLE), car(2L, Status.ON_SERVICE)));
+        fleetIndex.rebuild();
+
+        assertEquals(0, fleetIndex.verifyConsistency());
+
+        // a change that never reached the index, and a car the database does not know
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, Status.ON_LEASE), car(2L, Status.ON_SERVICE)));
+        fleetIndex.apply(car(9L, Status.IDLE));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        fleetIndex.bindTo(registry);
+
+        assertEquals(2, fleetIndex.verifyConsistency());
+        assertEquals(0, fleetIndex.count(Status.IDLE));
+        assertEquals(1, fleetIndex.count(Status.ON_LEASE));
+        assertEquals(2, registry.get("fleet.index.drift").functionCounter().count());
+        assertEquals(1, registry.get("fleet.index.size").tag("status", "on_lease").gauge().value());
+    }
+
+    @Test
+    void verifyConsistency_KeepsChangesAppliedWhileLoading() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, Status.IDLE), car(2L, Status.IDLE)));
+        fleetIndex.rebuild();
+
+        // applied from another thread while the database is read, which only completes if the write lock is free
+        when(carRepository.findAllSummaries()).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> {
+                fleetIndex.apply(car(1L, Status.ON_LEASE, 1L));
+                fleetIndex.apply(car(7L, Status.IDLE, 0L));
+            }).get(5, TimeUnit.SECONDS);
+            return List.of(car(1L, Status.IDLE), car(2L, Status.IDLE));
+        });
+
+        assertEquals(0, fleetIndex.verifyConsistency());
+        assertEquals(Status.ON_LEASE, fleetIndex.get(1L).getStatus());
+        assertEquals(List.of(2L, 7L), ids(fleetIndex.page(Status.IDLE, 0L, 10)));
+    }
+
+    @Test
+    void search_FiltersByShardAndCountsFacets() {
+        when(carRepository.findAllSummaries()).thenReturn(List.of(car(1L, "Tata", 2019, Status.IDLE), car(2L, "Mahindra", 2022, Status.IDLE),
+                car(3L, "Tata", 2022, Status.ON_LEASE), car(4L, "Tata", 2023, Status.IDLE)));
+        fleetIndex.rebuild();
+
+        CarSearchCriteria tata = new CarSearchCriteria("Tata", null, 2020, null, null);
+        assertEquals(List.of(3L, 4L), ids(fleetIndex.search(tata, 0L, 10)));
+        assertEquals(List.of(4L), ids(fleetIndex.search(tata, 3L, 10)));
+
+        CarFacets facets = fleetIndex.facets(tata);
+        assertEquals(Map.of("Tata", 2L), facets.getMake());
+        assertEquals(Map.of(2022, 1L, 2023, 1L), facets.getYear());
+        assertEquals(2, facets.getTotal());
+
+        // status only facets come from the running counts, which must follow a car that changed
+        fleetIndex.apply(car(2L, "Mahindra", 2022, Status.ON_SERVICE));
+        CarFacets idle = fleetIndex.facets(new CarSearchCriteria(null, null, null, null, Status.IDLE));
+        assertEquals(Map.of("Tata", 2L), idle.getMake());
+        assertEquals(Map.of(2019, 1L, 2023, 1L), idle.getYear());
+        assertEquals(4, fleetIndex.facets(new CarSearchCriteria(null, " ", null, null, null)).getTotal());
+    }
+
+    @Test
+    void searchCriteria_EmptyYearRangeRejected() {
+        assertThrows(FieldMissingException.class, () -> new CarSearchCriteria(null, null, 2023, 2020, null));
+    }
+
+    private static CarSummary car(Long id, Status status) {
+        return car(id, status, 0L);
+    }
+
+    private static CarSummary car(Long id, Status status, long version) {
+        return new CarSummary(id, "Mahindra", "Thar", 2022, "TN 72 NR " + id, status, "owner@mail.com", version);
+    }
+
+    private static CarSummary car(Long id, String make, int year, Status status) {
+        return new CarSummary(id, make, "Thar", year, "TN 72 NR " + id, status, "owner@mail.com", 0L);
+    }
+
+    private static List<Long> ids(List<CarSummary> cars) {
+        return cars.stream().map(CarSummary::getId).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.nk.cars.service;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.dto.CarView;
+import com.nk.cars.dto.CursorPage;
+import com.nk.cars.dto.LeaseBatchResult;
+import com.nk.cars.dto.LeaseHistoryCriteria;
+import com.nk.cars.dto.LeaseSummary;
+import com.nk.cars.dto.UserPrincipal;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.User;
+import com.nk.cars.exception.ConflictException;
+import com.nk.cars.repo.ArchivedLeaseRepository;
+import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeaseArchiveTest.java
+ *
+ * <p>
+ * Archives old ended leases in several batches and checks that the lease table keeps only the recent
+ * and active ones while every history read still sees all of them.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class LeaseArchiveTest extends CarsBootTest {
+
+    private static final int OLD_LEASES = 5;
+
+    @Autowired
+    private LeaseArchiver leaseArchiver;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private ArchivedLeaseRepository archivedLeaseRepository;
+
+    @Test
+    void archive_MovesOldEndedLeasesAndHistoryStillSeesThem() {
+        User owner = userRepository.save(newUser("owner@archive.com", Role.CAR_OWNER));
+        User customer = userRepository.save(newUser("customer@archive.com", Role.END_CUSTOMER));
+        Car car = carService.registerCar(newCar("TN 04 ARCHIVE 1"), owner);
+        Car leasedCar = carService.registerCar(newCar("TN 04 ARCHIVE 2"), owner);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> oldLeaseIds = new ArrayList<>();
+        for (int i = 0; i < OLD_LEASES; i++)
+            oldLeaseIds.add(saveEndedLease(car, customer, now.minusDays(200 - i), now.minusDays(100 - i)).getId());
+        Long recentLeaseId = saveEndedLease(car, customer, now.minusDays(3), now.minusDays(1)).getId();
+        Long activeLeaseId = leaseService.startLease(leasedCar.getId(), customer).getId();
+
+        assertEquals(OLD_LEASES, leaseArchiver.archive()); // three batches of at most two
+        assertEquals(0, leaseArchiver.archive());
+
+        assertEquals(List.of(activeLeaseId, recentLeaseId).stream().sorted().toList(),
+                leaseRepository.findAllByCustomer(customer).stream().map(Lease::getId).sorted().toList());
+        assertEquals(OLD_LEASES, archivedLeaseRepository.findAllByCustomer(customer).size());
+        assertEquals(2, userRepository.findById(customer.getUserId()).orElseThrow().getLeases().size());
+
+        // paged history merges both tables, newest first
+        UserPrincipal principal = new UserPrincipal(customer.getUserId(), customer.getEmail(), Role.END_CUSTOMER);
+        LeaseHistoryCriteria all = new LeaseHistoryCriteria(null, null, null, null, null);
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<LeaseSummary> page = leaseService.getLeaseHistory(principal, all, cursor, 3, true);
+            assertEquals(OLD_LEASES + 2, page.getTotalCount());
+            page.getItems().forEach(lease -> walked.add(lease.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>(List.of(activeLeaseId, recentLeaseId));
+        expected.addAll(oldLeaseIds.reversed());
+        assertEquals(expected, walked);
+
+        assertEquals(1, leaseService.getLeaseHistory(principal, new LeaseHistoryCriteria(null, null, null, null, State.ACTIVE), null, null, true).getTotalCount());
+        assertEquals(OLD_LEASES + 2, leaseService.getLeaseSummariesForUser(principal).size());
+        assertEquals(OLD_LEASES + 2, leaseService.getLeaseHistoryForUser(customer).size());
+
+        UserPrincipal ownerPrincipal = new UserPrincipal(owner.getUserId(), owner.getEmail(), Role.CAR_OWNER);
+        CarView carView = carService.getAllCarsByOwner(ownerPrincipal).stream()
+                .filter(view -> view.getId().equals(car.getId())).findFirst().orElseThrow();
+        assertEquals(OLD_LEASES + 1, carView.getLeaseIds().size());
+
+        // an archived lease can still be looked up, but not ended again
+        Long archivedId = oldLeaseIds.get(0);
+        Lease archived = leaseService.getLeaseById(archivedId);
+        assertEquals(State.ENDED, archived.getState());
+        assertEquals(customer.getUserId(), archived.getCustomer().getUserId());
+        assertThrows(ConflictException.class, () -> leaseService.endLease(archivedId, customer));
+
+        LeaseBatchResult result = leaseService.endLeases(List.of(archivedId), customer, false).get(0);
+        assertTrue(result.isRejected());
+        assertTrue(result.getMessage().contains("already ended"), result.getMessage());
+    }
+
+    private Lease saveEndedLease(Car car, User customer, LocalDateTime startDate, LocalDateTime endDate) {
+        Lease lease = new Lease();
+        lease.setCar(car);
+        lease.setCustomer(customer);
+        lease.setStartDate(startDate);
+        lease.setEndDate(endDate);
+        return leaseRepository.save(lease);
+    }
+}
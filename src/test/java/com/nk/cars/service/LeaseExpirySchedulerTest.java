@@ -0,0 +1,87 @@
+package com.nk.cars.service;
+
+import com.nk.cars.event.LeaseEndPlannedEvent;
+import com.nk.cars.repo.LeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * LeaseExpirySchedulerTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class LeaseExpirySchedulerTest {
+
+    @InjectMocks
+    private LeaseExpiryScheduler leaseExpiryScheduler;
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    @Mock
+    private LeaseService leaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(leaseExpiryScheduler, "tick", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(leaseExpiryScheduler, "batchSize", 100);
+        ReflectionTestUtils.setField(leaseExpiryScheduler, "retryDelay", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void rebuild_KeepsLeasesPlannedWhileReading() {
+        when(leaseRepository.streamPlannedEnds()).thenReturn(Stream.of(plannedEnd(1L)));
+        assertEquals(1, leaseExpiryScheduler.rebuild());
+
+        // planned from another thread while the lease table is read, which only completes if the wheel is not locked
+        when(leaseRepository.streamPlannedEnds()).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> leaseExpiryScheduler.onLeaseEndPlanned(new LeaseEndPlannedEvent(2L, LocalDateTime.now().plusHours(1))))
+                    .get(5, TimeUnit.SECONDS);
+            return Stream.of(plannedEnd(1L));
+        });
+
+        assertEquals(2, leaseExpiryScheduler.rebuild());
+        assertEquals(2, leaseExpiryScheduler.pendingCount());
+
+        // planned outside a rebuild, the next one reads it from the lease table like any other
+        leaseExpiryScheduler.onLeaseEndPlanned(new LeaseEndPlannedEvent(3L, LocalDateTime.now().plusHours(1)));
+        when(leaseRepository.streamPlannedEnds()).thenReturn(Stream.empty());
+        assertEquals(0, leaseExpiryScheduler.rebuild());
+    }
+
+    private static LeaseRepository.PlannedEnd plannedEnd(Long leaseId) {
+        LocalDateTime plannedEndDate = LocalDateTime.now().plusHours(1);
+
+        return new LeaseRepository.PlannedEnd() {
+            @Override
+            public Long getLeaseId() {
+                return leaseId;
+            }
+
+            @Override
+            public LocalDateTime getPlannedEndDate() {
+                return plannedEndDate;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.nk.cars.service;
+
+import com.nk.cars.CarsBootTest;
+import com.nk.cars.entity.Car;
+import com.nk.cars.entity.Lease;
+import com.nk.cars.entity.Role;
+import com.nk.cars.entity.State;
+import com.nk.cars.entity.Status;
+import com.nk.cars.entity.User;
+import com.nk.cars.exception.FieldMissingException;
+import com.nk.cars.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LeaseExpiryTest.java
+ *
+ * <p>
+ * Starts leases with a planned end and checks that they end once the scheduler's clock passes it, freeing
+ * the car and the customer's lease slot, and that planned ends already in the table are picked up again
+ * when the scheduler is rebuilt as on startup. The clock is fixed while a test runs and moved on by hand,
+ * so the scheduled passes end nothing of their own.
+ * </p>
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.service
+ * @created Oct 18, 2026
+ */
+class LeaseExpiryTest extends CarsBootTest {
+
+    @Autowired
+    private LeaseExpiryScheduler leaseExpiryScheduler;
+
+    @Autowired
+    private LeaseService leaseService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        setClock(Instant.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(leaseExpiryScheduler, "clock", Clock.systemDefaultZone());
+    }
+
+    @Test
+    void plannedEnd_EndsLeaseOnceDue() {
+        User owner = userRepository.save(newUser("owner@expiry.com", Role.CAR_OWNER));
+        User customer = userRepository.save(newUser("customer@expiry.com", Role.END_CUSTOMER));
+        Car car = carService.registerCar(newCar("TN 05 EXPIRY 1"), owner);
+        Car otherCar = carService.registerCar(newCar("TN 05 EXPIRY 2"), owner);
+
+        assertThrows(FieldMissingException.class, () -> leaseService.startLease(car.getId(), customer, LocalDateTime.now().minusMinutes(1)));
+
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(1);
+        Lease due = leaseService.startLease(car.getId(), customer, dueAt);
+        Lease later = leaseService.startLease(otherCar.getId(), customer, LocalDateTime.now().plusHours(1));
+
+        leaseExpiryScheduler.expireDue();
+        assertEquals(State.ACTIVE, leaseService.getLeaseById(due.getId()).getState());
+
+        setClock(dueAt.plusSeconds(1));
+        leaseExpiryScheduler.expireDue();
+
+        assertEquals(State.ENDED, leaseService.getLeaseById(due.getId()).getState());
+        assertEquals(Status.IDLE, carService.getCarById(car.getId()).getStatus());
+        assertEquals(1, userRepository.findById(customer.getUserId()).orElseThrow().getActiveLeaseCount());
+        assertEquals(State.ACTIVE, leaseService.getLeaseById(later.getId()).getState());
+
+        // a lease ended by hand before it was due is left alone when its turn comes
+        leaseService.endLease(later.getId(), customer);
+        LocalDateTime endedEarlyAt = LocalDateTime.now().plusMinutes(2);
+        Lease endedEarly = leaseService.startLease(car.getId(), customer, endedEarlyAt);
+        LocalDateTime endedAt = leaseService.getLeaseById(leaseService.endLease(endedEarly.getId(), customer).getId()).getEndDate();
+
+        setClock(endedEarlyAt.plusSeconds(1));
+        assertEquals(0, leaseExpiryScheduler.expireDue());
+        assertEquals(endedAt, leaseService.getLeaseById(endedEarly.getId()).getEndDate());
+        assertEquals(0, userRepository.findById(customer.getUserId()).orElseThrow().getActiveLeaseCount());
+    }
+
+    @Test
+    void rebuild_PicksUpPlannedEndsFromTheTable() {
+        User owner = userRepository.save(newUser("owner@rebuild.com", Role.CAR_OWNER));
+        User customer = userRepository.save(newUser("customer@rebuild.com", Role.END_CUSTOMER));
+        Car car = carService.registerCar(newCar("TN 05 REBUILD 1"), owner);
+
+        Lease lease = leaseService.startLease(car.getId(), customer, LocalDateTime.now().plusDays(30));
+
+        // as if the planned end passed while the application was down
+        jdbcTemplate.update("update lease set planned_end_date = ? where id = ?", LocalDateTime.now().minusHours(1), lease.getId());
+
+        assertTrue(leaseExpiryScheduler.rebuild() >= 1);
+
+        leaseExpiryScheduler.expireDue();
+        assertEquals(State.ENDED, leaseService.getLeaseById(lease.getId()).getState());
+        assertEquals(Status.IDLE, carService.getCarById(car.getId()).getStatus());
+    }
+
+    private void setClock(LocalDateTime dateTime) {
+        setClock(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void setClock(Instant instant) {
+        ReflectionTestUtils.setField(leaseExpiryScheduler, "clock", Clock.fixed(instant, ZoneId.systemDefault()));
+    }
+}
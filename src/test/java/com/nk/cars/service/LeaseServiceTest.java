@@ -2,14 +2,20 @@ package com.nk.cars.service;
 
 import com.nk.cars.entity.*;
 import com.nk.cars.entity.*;
+import com.nk.cars.event.LeaseChangedEvent;
 import com.nk.cars.exception.ActionNotAllowedException;
+import com.nk.cars.exception.ConflictException;
 import com.nk.cars.exception.NotFoundException;
+import com.nk.cars.repo.ArchivedLeaseRepository;
 import com.nk.cars.repo.LeaseRepository;
+import com.nk.cars.repo.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,9 +32,24 @@ class LeaseServiceTest {
     @Mock
     private LeaseRepository leaseRepository;
 
+    @Mock
+    private ArchivedLeaseRepository archivedLeaseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private CarService carService;
 
+    @Mock
+    private CarHolds carHolds;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
     private Car testCar;
     private User testUser;
     private Lease testLease;
@@ -51,12 +72,15 @@ class LeaseServiceTest {
         testLease.setCustomer(testUser);
         testLease.setStartDate(LocalDateTime.now());
         testLease.setState(State.ACTIVE);
+
+        when(userRepository.reserveLeaseSlots(anyLong(), anyInt(), anyInt())).thenReturn(1);
     }
 
     @Test
     void startLease_Success() {
         // Arrange
         when(carService.getCarById(1L)).thenReturn(testCar);
+        when(carService.transitionStatus(1L, Status.IDLE, Status.ON_LEASE)).thenReturn(testCar);
         when(leaseRepository.save(any(Lease.class))).thenReturn(testLease);
 //        when(testUser.getLeases()).thenReturn(new ArrayList<>());
 
@@ -66,8 +90,12 @@ class LeaseServiceTest {
         // Assert
         assertNotNull(lease);
         assertEquals(State.ACTIVE, lease.getState());
-        verify(carService, times(1)).saveCar(testCar);
+        verify(carService, times(1)).transitionStatus(1L, Status.IDLE, Status.ON_LEASE);
+        verify(carService, never()).saveCar(any());
+        verify(userRepository, times(1)).reserveLeaseSlots(1L, 1, 2);
         verify(leaseRepository, times(1)).save(any(Lease.class));
+        verify(eventPublisher, times(1)).publishEvent(any(LeaseChangedEvent.class));
+        verify(carHolds, times(1)).release(1L, 1L);
     }
 
     @Test
@@ -77,23 +105,49 @@ class LeaseServiceTest {
         when(carService.getCarById(1L)).thenReturn(testCar);
 
         // Act & Assert
-        ActionNotAllowedException exception = assertThrows(ActionNotAllowedException.class,
+        ConflictException exception = assertThrows(ConflictException.class,
                 () -> leaseService.startLease(1L, testUser));
         assertEquals("Car with ID " + 1L +" is not available for leasing. Current status : "+ testCar.getStatus(), exception.getMessage());
+        verify(carService, never()).transitionStatus(any(), any(), any());
         verify(leaseRepository, never()).save(any(Lease.class));
     }
 
     @Test
-    void startLease_UserAlreadyLeasedTwoCars() {
+    void startLease_LostRaceForCar() {
+        // Arrange, the car still looked idle when read
+        when(carService.getCarById(1L)).thenReturn(testCar);
+        when(carService.transitionStatus(1L, Status.IDLE, Status.ON_LEASE)).thenThrow(new ConflictException("Car with ID 1 is no longer IDLE"));
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> leaseService.startLease(1L, testUser));
+        verify(leaseRepository, never()).save(any(Lease.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void startLease_CarHeldByAnotherCustomer() {
         // Arrange
-        List<Lease> leases = List.of(testLease, testLease);
         when(carService.getCarById(1L)).thenReturn(testCar);
-        testUser.setLeases(leases);
+        when(carHolds.isHeldByOther(1L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        ConflictException exception = assertThrows(ConflictException.class, () -> leaseService.startLease(1L, testUser));
+        assertEquals("Car with ID 1 is held by another customer", exception.getMessage());
+        verify(userRepository, never()).reserveLeaseSlots(anyLong(), anyInt(), anyInt());
+        verify(carService, never()).transitionStatus(any(), any(), any());
+    }
+
+    @Test
+    void startLease_UserAlreadyLeasedTwoCars() {
+        // Arrange, both of the user's slots are taken
+        when(carService.getCarById(1L)).thenReturn(testCar);
+        when(userRepository.reserveLeaseSlots(1L, 1, 2)).thenReturn(0);
 
         // Act & Assert
         assertThrows(ActionNotAllowedException.class,
                 () -> leaseService.startLease(1L, testUser));
 
+        verify(carService, never()).transitionStatus(any(), any(), any());
         verify(leaseRepository, never()).save(any(Lease.class));
     }
 
@@ -101,7 +155,11 @@ class LeaseServiceTest {
     void endLease_Success() {
         // Arrange
         when(leaseRepository.findById(1L)).thenReturn(Optional.of(testLease));
-        when(leaseRepository.save(any(Lease.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(leaseRepository.endIfActive(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        doAnswer(invocation -> { // reads back what the conditional update wrote
+            testLease.setEndDate(LocalDateTime.now());
+            return null;
+        }).when(entityManager).refresh(testLease);
 
         // Act
         Lease endedLease = leaseService.endLease(1L, testUser);
@@ -109,9 +167,22 @@ class LeaseServiceTest {
         // Assert
         assertNotNull(endedLease);
         assertEquals(State.ENDED, endedLease.getState());
-        assertEquals(Status.IDLE, testCar.getStatus());
-        verify(carService, times(1)).saveCar(testCar);
-        verify(leaseRepository, times(1)).save(testLease);
+        verify(entityManager, times(1)).refresh(testLease);
+        verify(carService, times(1)).transitionStatus(testCar.getId(), Status.ON_LEASE, Status.IDLE);
+        verify(userRepository, times(1)).releaseLeaseSlots(1L, 1);
+        verify(carService, never()).saveCar(any());
+    }
+
+    @Test
+    void endLease_EndedConcurrently() {
+        // Arrange, still active when read but ended by another request before the update
+        when(leaseRepository.findById(1L)).thenReturn(Optional.of(testLease));
+        when(leaseRepository.endIfActive(eq(1L), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> leaseService.endLease(1L, testUser));
+        verify(carService, never()).transitionStatus(any(), any(), any());
+        verify(userRepository, never()).releaseLeaseSlots(any(), anyInt());
     }
 
     @Test
@@ -0,0 +1,67 @@
+package com.nk.cars.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimingWheelTest.java
+ *
+ * @author Nandhakumar N
+ * @module com.nk.cars.utils
+ * @created Oct 18, 2026
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_760_000_000_000L;
+
+    @Test
+    void advance_HandsOutItemsAtTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), START);
+        wheel.schedule("soon", START + 1_500);
+        wheel.schedule("overdue", START - 10_000);
+        wheel.schedule("tomorrow", START + Duration.ofDays(1).toMillis());
+
+        assertEquals(List.of("overdue"), wheel.advance(START));
+        assertEquals(List.of(), wheel.advance(START + 1_000));
+        assertEquals(List.of("soon"), wheel.advance(START + 2_000));
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of(), wheel.advance(START + Duration.ofDays(1).toMillis() - 1_000));
+        assertEquals(List.of("tomorrow"), wheel.advance(START + Duration.ofDays(1).toMillis()));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_NeverEarlyNorMoreThanOneTickLateAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), START);
+        Random random = new Random(7);
+
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // from a few seconds to about 50 days, so items move down through several levels
+            long deadline = START + (long) Math.pow(10, 3 + random.nextDouble() * 6.6);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        long now = START;
+        int handedOut = 0;
+        while (handedOut < deadlines.size()) {
+            now += 1_000 + random.nextInt(3_600_000); // skips ahead irregularly, up to an hour at a time
+            for (long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "early by " + (deadline - now) + " ms");
+                handedOut++;
+            }
+            // everything up to now must be out, only the last second can still be pending
+            final long checked = now;
+            assertTrue(deadlines.stream().filter(deadline -> deadline <= checked - 1_000).count() <= handedOut);
+        }
+        assertEquals(0, wheel.size());
+    }
+}